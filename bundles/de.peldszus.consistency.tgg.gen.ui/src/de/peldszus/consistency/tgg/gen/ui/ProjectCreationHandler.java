@@ -1,13 +1,13 @@
 package de.peldszus.consistency.tgg.gen.ui;
 
-import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import javax.swing.JOptionPane;
 
@@ -16,6 +16,7 @@ import org.eclipse.core.commands.AbstractHandler;
 import org.eclipse.core.commands.ExecutionEvent;
 import org.eclipse.core.commands.ExecutionException;
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -23,7 +24,6 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EPackage;
-import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
 import org.eclipse.jface.viewers.IStructuredSelection;
@@ -31,7 +31,11 @@ import org.eclipse.ui.ISelectionService;
 import org.eclipse.ui.IWorkbenchWindow;
 import org.eclipse.ui.handlers.HandlerUtil;
 import org.gravity.eclipse.importer.DuplicateProjectNameException;
+import org.gravity.eclipse.util.EclipseProjectUtil;
 
+import de.peldszus.consistency.tgg.gen.GeneratorConfiguration;
+import de.peldszus.consistency.tgg.gen.MetamodelCache;
+import de.peldszus.consistency.tgg.gen.MetamodelLoader;
 import de.peldszus.consistency.tgg.gen.TGGProjectCreator;
 
 /**
@@ -47,6 +51,11 @@ public class ProjectCreationHandler extends AbstractHandler {
 	 */
 	static final Logger LOGGER = Logger.getLogger(ProjectCreationHandler.class);
 
+	/*
+	 * The folder of the meta model cache in the state location
+	 */
+	private static final String METAMODEL_CACHE = "metamodels";
+
 	@Override
 	public Object execute(ExecutionEvent event) throws ExecutionException {
 		final List<?> selection = getSelection(event);
@@ -70,33 +79,34 @@ public class ProjectCreationHandler extends AbstractHandler {
 	 * Loads all EPackages from the selected ecore files
 	 *
 	 * @param selection The selection from the workspace
+	 * @param cache The cache used for loading the meta models
 	 * @return The EPackages contained in the selection
 	 */
-	private static Set<EPackage> loadEPackages(final List<?> selection) {
+	private static Set<EPackage> loadEPackages(final List<?> selection, MetamodelCache cache) {
+		final List<URI> uris = selection.stream().filter(element -> (element instanceof IFile)).map(file -> (IFile) file)
+				.filter(file -> Activator.FILEEXTENSION_ECORE.equals(file.getFileExtension()))
+				.map(file -> URI.createPlatformResourceURI(file.getFullPath().toString(), true))
+				.collect(Collectors.toList());
 		final ResourceSet resourceSet = new ResourceSetImpl();
-		return selection.parallelStream().filter(element -> (element instanceof IFile)).map(file -> (IFile) file)
-				.filter(file -> file.getFileExtension().equals(Activator.FILEEXTENSION_ECORE)).flatMap(file -> {
-					try {
-						final String projectName = file.getProject().getName();
-						final String projectRelavtive = file.getProjectRelativePath().toString();
-						final Resource resource = resourceSet.createResource(URI.createPlatformResourceURI(projectName+ File.separator+projectRelavtive, true));
-						resource.load(file.getContents(), Collections.emptyMap());
-						return resource.getContents().parallelStream();
-					} catch (IOException | CoreException e) {
-						LOGGER.error("Couldn't load file: " + file.getName(), e);
-						return Stream.empty();
-					}
-				}).filter(eObject -> {
-					if (eObject instanceof EPackage) {
-						return true;
-					}
-					LOGGER.error("Loaded object is no EPackage: " + eObject.eClass().getName());
-					return false;
-				}).map(eObject -> (EPackage) eObject).collect(Collectors.toSet());
+		cache.install(resourceSet);
+		final MetamodelLoader loader = new MetamodelLoader(Runtime.getRuntime().availableProcessors(), cache);
+		final List<EPackage> ePackages;
+		try {
+			ePackages = loader.load(uris, resourceSet);
+		} catch (final IOException e) {
+			LOGGER.error("Loading the selected files failed.", e);
+			return Collections.emptySet();
+		}
+		for (final Entry<URI, Exception> failure : loader.getFailures().entrySet()) {
+			LOGGER.error("Couldn't load file: " + failure.getKey().lastSegment(), failure.getValue());
+		}
+		return new LinkedHashSet<>(ePackages);
 	}
 
 	/**
-	 * Creates a TGG project from the selected ecore files in the workspace
+	 * Creates a TGG project from the selected ecore files in the workspace. If a
+	 * previously generated project with the name exists, only its outdated rules
+	 * are regenerated.
 	 *
 	 * @param selection The selection from the workspace
 	 * @param projectName The name of the created project
@@ -104,13 +114,20 @@ public class ProjectCreationHandler extends AbstractHandler {
 	 * @return A status object describing the result
 	 */
 	public static IStatus createFromWorkspaceSelection(final List<?> selection, final String projectName, IProgressMonitor monitor) {
-		final Set<EPackage> ePackages = loadEPackages(selection);
+		final MetamodelCache cache = getMetamodelCache();
+		final Set<EPackage> ePackages = loadEPackages(selection, cache);
 		if (ePackages.isEmpty()) {
 			LOGGER.error("No EPackage selected!");
 			return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "No EPackage selected!");
 		}
+		final GeneratorConfiguration configuration = new GeneratorConfiguration().setMetamodelCache(cache);
 		try {
-			new TGGProjectCreator().createTGGProject(ePackages, projectName, monitor);
+			final IProject existing = EclipseProjectUtil.getProjectByName(projectName);
+			if (existing.exists() && TGGProjectCreator.isUpdatable(existing)) {
+				new TGGProjectCreator(configuration).updateTGGProject(ePackages, existing, monitor);
+			} else {
+				new TGGProjectCreator(configuration).createTGGProject(ePackages, projectName, monitor);
+			}
 		} catch (DuplicateProjectNameException | CoreException | IOException e) {
 			LOGGER.error("Creation of a TGG project failed.", e);
 			return new Status(IStatus.ERROR, Activator.PLUGIN_ID, "Creation of a TGG project failed.", e);
@@ -118,6 +135,17 @@ public class ProjectCreationHandler extends AbstractHandler {
 		return Status.OK_STATUS;
 	}
 
+	/**
+	 * The cache of parsed meta models, which is stored in the state location of
+	 * this plug-in
+	 *
+	 * @return The cache
+	 */
+	private static MetamodelCache getMetamodelCache() {
+		return new MetamodelCache(
+				Activator.getDefault().getStateLocation().append(METAMODEL_CACHE).toFile().toPath());
+	}
+
 	/**
 	 * This operation gets the current selection in the workspace for an event
 	 *
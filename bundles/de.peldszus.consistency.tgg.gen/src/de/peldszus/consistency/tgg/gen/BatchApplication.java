@@ -0,0 +1,170 @@
+package de.peldszus.consistency.tgg.gen;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.equinox.app.IApplicationContext;
+
+import de.peldszus.consistency.tgg.gen.BatchGenerator.Job;
+import de.peldszus.consistency.tgg.gen.BatchGenerator.Result;
+
+/**
+ * An Eclipse application generating the TGGs of all jobs listed in a manifest,
+ * e.g. <code>eclipse -application de.peldszus.consistency.tgg.gen.batch
+ * -manifest jobs.properties -output out</code>. The optional arguments are
+ * "-library", "-jobs", "-parallelism", "-cache", "-summary", "-binary" and
+ * "-xtext".
+ *
+ * @author speldszus
+ *
+ */
+public class BatchApplication implements IApplication {
+
+	/**
+	 * The exit code if at least one job failed
+	 */
+	public static final Integer EXIT_FAILED = Integer.valueOf(1);
+
+	/**
+	 * The exit code if the arguments are invalid
+	 */
+	public static final Integer EXIT_USAGE = Integer.valueOf(2);
+
+	private static final String USAGE = "Usage: -manifest <file> -output <folder> [-library <file>] [-jobs <n>] "
+			+ "[-parallelism <n>] [-cache <folder>] [-summary <file>] [-binary] [-xtext]";
+
+	/**
+	 * The options followed by a value
+	 */
+	private static final Set<String> VALUE_OPTIONS = new HashSet<>(
+			Arrays.asList("manifest", "output", "library", "jobs", "parallelism", "cache", "summary"));
+
+	/**
+	 * The options without a value
+	 */
+	private static final Set<String> FLAGS = new HashSet<>(Arrays.asList("binary", "xtext"));
+
+	private volatile BatchGenerator generator;
+
+	@Override
+	public Object start(IApplicationContext context) throws Exception {
+		final String[] args = (String[]) context.getArguments().get(IApplicationContext.APPLICATION_ARGS);
+		final Map<String, String> options = parse(args == null ? new String[0] : args);
+		if (options == null || !options.containsKey("manifest") || !options.containsKey("output")) {
+			Platform.getLog(Platform.getBundle(Activator.PLUGIN_ID))
+					.log(new Status(IStatus.ERROR, Activator.PLUGIN_ID, USAGE));
+			return EXIT_USAGE;
+		}
+		final List<Job> jobs = BatchGenerator.readManifest(Paths.get(options.get("manifest")));
+		final Path output = Paths.get(options.get("output"));
+		final int processors = Runtime.getRuntime().availableProcessors();
+		final GeneratorConfiguration configuration = new GeneratorConfiguration()
+				.setParallelism(getInt(options, "parallelism", processors))
+				.setBinaryOutput(options.containsKey("binary")).setTextEmission(!options.containsKey("xtext"));
+		final Path cache = options.containsKey("cache") ? Paths.get(options.get("cache"))
+				: Files.createTempDirectory("metamodels");
+		configuration.setMetamodelCache(new MetamodelCache(cache));
+		final Path library = options.containsKey("library") ? Paths.get(options.get("library")) : null;
+		this.generator = new BatchGenerator(configuration, getInt(options, "jobs", processors), library);
+		final List<Result> results;
+		try {
+			results = this.generator.run(jobs, output);
+		} finally {
+			this.generator = null;
+			if (!options.containsKey("cache")) {
+				delete(cache);
+			}
+		}
+
+		final Path summary = options.containsKey("summary") ? Paths.get(options.get("summary"))
+				: output.resolve("summary.json");
+		BatchGenerator.writeJSON(results, summary);
+		for (final Result result : results) {
+			if (!result.isSuccessful()) {
+				return EXIT_FAILED;
+			}
+		}
+		return IApplication.EXIT_OK;
+	}
+
+	@Override
+	public void stop() {
+		final BatchGenerator running = this.generator;
+		if (running != null) {
+			running.cancel();
+		}
+	}
+
+	/**
+	 * Collects the options from the arguments. Options are given as "-name
+	 * value", flags as "-name".
+	 *
+	 * @param args The arguments of the application
+	 * @return A mapping from the option names to their values or null if the
+	 *         arguments are invalid
+	 */
+	private static Map<String, String> parse(String[] args) {
+		final Map<String, String> options = new HashMap<>();
+		for (int i = 0; i < args.length; i++) {
+			if (!args[i].startsWith("-")) {
+				return null;
+			}
+			final String name = args[i].substring(1);
+			if (FLAGS.contains(name)) {
+				options.put(name, Boolean.TRUE.toString());
+			} else if (VALUE_OPTIONS.contains(name) && i + 1 < args.length) {
+				options.put(name, args[++i]);
+			} else {
+				return null;
+			}
+		}
+		return options;
+	}
+
+	/**
+	 * Deletes a folder with all of its contents
+	 *
+	 * @param folder The folder
+	 * @throws IOException If a file couldn't be deleted
+	 */
+	private static void delete(Path folder) throws IOException {
+		if (!Files.exists(folder)) {
+			return;
+		}
+		final List<Path> paths;
+		try (Stream<Path> walk = Files.walk(folder)) {
+			paths = walk.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+		}
+		for (final Path path : paths) {
+			Files.delete(path);
+		}
+	}
+
+	/**
+	 * Reads a numeric option
+	 *
+	 * @param options      The options
+	 * @param name         The name of the option
+	 * @param defaultValue The value if the option is not given
+	 * @return The value
+	 */
+	private static int getInt(Map<String, String> options, String name, int defaultValue) {
+		final String value = options.get(name);
+		return value == null ? defaultValue : Integer.parseInt(value);
+	}
+}
@@ -0,0 +1,366 @@
+package de.peldszus.consistency.tgg.gen;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.xmi.impl.EcoreResourceFactoryImpl;
+
+/**
+ * Generates the TGGs of many sets of meta models concurrently. Each job loads
+ * its meta models into its own resource set and writes its TGG into a sub
+ * folder of the output named like the job. Meta models used by several jobs,
+ * e.g. shared libraries, are parsed only once and afterwards read from the
+ * {@link MetamodelCache} of the template configuration.
+ *
+ * @author speldszus
+ *
+ */
+public class BatchGenerator {
+
+	private static final long NANOS_PER_MILLI = 1_000_000L;
+
+	private final GeneratorConfiguration template;
+	private final int jobs;
+	private final Path library;
+	private volatile ExecutorService executor;
+
+	/**
+	 * Initializes a batch generator
+	 *
+	 * @param template The configuration from which the configurations of the jobs
+	 *                 are derived, the parallelism is divided between the
+	 *                 concurrent jobs
+	 * @param jobs     The maximal number of jobs executed at the same time
+	 * @param library  The eMoflon attribute condition library or null
+	 */
+	public BatchGenerator(GeneratorConfiguration template, int jobs, Path library) {
+		if (jobs < 1) {
+			throw new IllegalArgumentException("The number of concurrent jobs has to be at least one: " + jobs);
+		}
+		this.template = template;
+		this.jobs = jobs;
+		this.library = library;
+	}
+
+	/**
+	 * Executes the jobs. A failing job doesn't abort the other jobs, its failure
+	 * is reported in its result.
+	 *
+	 * @param batch  The jobs
+	 * @param output The folder into which the TGGs should be written
+	 * @return The results of the jobs in the order of the jobs
+	 * @throws IOException If the execution has been interrupted
+	 */
+	public List<Result> run(List<Job> batch, Path output) throws IOException {
+		final List<Future<Result>> futures = new ArrayList<>(batch.size());
+		final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(this.jobs, batch.size())));
+		this.executor = executor;
+		try {
+			for (final Job job : batch) {
+				futures.add(executor.submit(() -> execute(job, output.resolve(job.getName()))));
+			}
+			final List<Result> results = new ArrayList<>(batch.size());
+			for (int i = 0; i < batch.size(); i++) {
+				try {
+					results.add(futures.get(i).get());
+				} catch (final ExecutionException e) {
+					results.add(new Result(batch.get(i).getName(), 0, 0, null, e.getCause()));
+				} catch (final CancellationException e) {
+					results.add(new Result(batch.get(i).getName(), 0, 0, null, e));
+				}
+			}
+			return results;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("The batch generation has been interrupted.", e);
+		} finally {
+			this.executor = null;
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Cancels the running batch. Jobs which haven't been started are not executed
+	 * and reported as failed, running jobs are interrupted.
+	 */
+	public void cancel() {
+		final ExecutorService running = this.executor;
+		if (running != null) {
+			for (final Runnable pending : running.shutdownNow()) {
+				if (pending instanceof Future) {
+					((Future<?>) pending).cancel(true);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Loads the meta models of a job and generates its TGG
+	 *
+	 * @param job    The job
+	 * @param folder The folder into which the TGG should be written
+	 * @return The result of the job
+	 */
+	private Result execute(Job job, Path folder) {
+		final GeneratorConfiguration configuration = createConfiguration();
+		long start = System.nanoTime();
+		long loading = -1;
+		try {
+			final List<EPackage> ePackages = load(job, configuration.getMetamodelCache());
+			loading = System.nanoTime() - start;
+			start = System.nanoTime();
+			new TGGGenerator(configuration).generate(ePackages, job.getName(), folder, this.library,
+					new NullProgressMonitor());
+			return new Result(job.getName(), loading, System.nanoTime() - start, configuration.getMetrics(), null);
+		} catch (final IOException | RuntimeException e) {
+			if (loading < 0) {
+				return new Result(job.getName(), System.nanoTime() - start, 0, null, e);
+			}
+			return new Result(job.getName(), loading, System.nanoTime() - start, configuration.getMetrics(), e);
+		}
+	}
+
+	/**
+	 * Loads the meta models of a job into a new resource set
+	 *
+	 * @param job   The job
+	 * @param cache The cache used for loading the meta models
+	 * @return The EPackages of the meta models
+	 * @throws IOException If a meta model couldn't be loaded
+	 */
+	private List<EPackage> load(Job job, MetamodelCache cache) throws IOException {
+		final List<URI> uris = new ArrayList<>(job.getMetamodels().size());
+		for (final Path metamodel : job.getMetamodels()) {
+			uris.add(URI.createFileURI(metamodel.toAbsolutePath().toString()));
+		}
+		final ResourceSet resourceSet = new ResourceSetImpl();
+		resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap().put("ecore",
+				new EcoreResourceFactoryImpl());
+		if (cache != null) {
+			cache.install(resourceSet);
+		}
+		final MetamodelLoader loader = new MetamodelLoader(1, cache);
+		final List<EPackage> ePackages = loader.load(uris, resourceSet);
+		if (!loader.getFailures().isEmpty()) {
+			final Entry<URI, Exception> failure = loader.getFailures().entrySet().iterator().next();
+			throw new IOException("Couldn't load meta model: " + failure.getKey().toFileString(),
+					failure.getValue());
+		}
+		return ePackages;
+	}
+
+	/**
+	 * Creates the configuration of a single job with its own metrics
+	 *
+	 * @return The configuration
+	 */
+	private GeneratorConfiguration createConfiguration() {
+		return new GeneratorConfiguration().setEmissionMode(this.template.getEmissionMode())
+				.setParallelism(Math.max(1, this.template.getParallelism() / this.jobs))
+				.setMetamodelCache(this.template.getMetamodelCache()).setBinaryOutput(this.template.isBinaryOutput())
+				.setScope(this.template.getScope()).setRuleGrouping(this.template.getRuleGrouping())
+				.setGroupSize(this.template.getGroupSize()).setTextEmission(this.template.isTextEmission())
+				.setFeatureFilter(this.template.getFeatureFilter());
+	}
+
+	/**
+	 * Reads the jobs from a manifest. Each line of the manifest has the form
+	 * {@code name = first.ecore, second.ecore} and defines a job generating the
+	 * TGG with the name for the listed meta models. Relative paths are resolved
+	 * against the folder of the manifest. The jobs are ordered by their names.
+	 *
+	 * @param manifest The manifest file
+	 * @return The jobs
+	 * @throws IOException If the manifest couldn't be read
+	 */
+	public static List<Job> readManifest(Path manifest) throws IOException {
+		final Properties properties = new Properties();
+		try (BufferedReader reader = Files.newBufferedReader(manifest, StandardCharsets.UTF_8)) {
+			properties.load(reader);
+		}
+		final Path folder = manifest.toAbsolutePath().getParent();
+		final List<Job> jobs = new ArrayList<>();
+		for (final String name : new TreeSet<>(properties.stringPropertyNames())) {
+			final List<Path> metamodels = new ArrayList<>();
+			for (final String path : properties.getProperty(name).split(",")) {
+				if (!path.trim().isEmpty()) {
+					metamodels.add(folder.resolve(path.trim()));
+				}
+			}
+			jobs.add(new Job(name, metamodels));
+		}
+		return jobs;
+	}
+
+	/**
+	 * Exports the results as JSON object. Durations are given in milliseconds.
+	 *
+	 * @param results The results of a batch
+	 * @return The JSON representation
+	 */
+	public static String toJSON(List<Result> results) {
+		int failed = 0;
+		for (final Result result : results) {
+			if (!result.isSuccessful()) {
+				failed++;
+			}
+		}
+		final StringBuilder builder = new StringBuilder("{\n  \"jobs\": ").append(results.size())
+				.append(",\n  \"failed\": ").append(failed).append(",\n  \"results\": [");
+		String separator = "\n";
+		for (final Result result : results) {
+			builder.append(separator).append("    { \"name\": ").append(GenerationMetrics.quote(result.getName()))
+					.append(", \"successful\": ").append(result.isSuccessful()).append(", \"loading\": ")
+					.append(result.getLoadingDuration() / NANOS_PER_MILLI).append(", \"generation\": ")
+					.append(result.getGenerationDuration() / NANOS_PER_MILLI);
+			if (result.getMetrics() != null) {
+				builder.append(", \"metrics\": ").append(result.getMetrics().toJSON().trim().replace("\n", " "));
+			}
+			if (!result.isSuccessful()) {
+				builder.append(", \"error\": ").append(GenerationMetrics.quote(String.valueOf(result.getError())));
+			}
+			builder.append(" }");
+			separator = ",\n";
+		}
+		return builder.append("\n  ]\n}\n").toString();
+	}
+
+	/**
+	 * Writes the JSON representation of the results into a file
+	 *
+	 * @param results The results of a batch
+	 * @param file    The file
+	 * @throws IOException If writing the file failed
+	 */
+	public static void writeJSON(List<Result> results, Path file) throws IOException {
+		final Path parent = file.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			writer.write(toJSON(results));
+		}
+	}
+
+	/**
+	 * A job generating a TGG for a set of meta models
+	 *
+	 * @author speldszus
+	 *
+	 */
+	public static final class Job {
+
+		private final String name;
+		private final List<Path> metamodels;
+
+		/**
+		 * Initializes a job
+		 *
+		 * @param name       The name of the TGG
+		 * @param metamodels The ecore files of the meta models
+		 */
+		public Job(String name, List<Path> metamodels) {
+			this.name = name;
+			this.metamodels = Collections.unmodifiableList(new ArrayList<>(metamodels));
+		}
+
+		/**
+		 * @return The name of the TGG
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * @return The ecore files of the meta models
+		 */
+		public List<Path> getMetamodels() {
+			return this.metamodels;
+		}
+	}
+
+	/**
+	 * The outcome of a job
+	 *
+	 * @author speldszus
+	 *
+	 */
+	public static final class Result {
+
+		private final String name;
+		private final long loading;
+		private final long generation;
+		private final GenerationMetrics metrics;
+		private final Throwable error;
+
+		private Result(String name, long loading, long generation, GenerationMetrics metrics, Throwable error) {
+			this.name = name;
+			this.loading = loading;
+			this.generation = generation;
+			this.metrics = metrics;
+			this.error = error;
+		}
+
+		/**
+		 * @return The name of the TGG
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * @return The time spent on loading the meta models in nanoseconds
+		 */
+		public long getLoadingDuration() {
+			return this.loading;
+		}
+
+		/**
+		 * @return The time spent on generating the TGG in nanoseconds
+		 */
+		public long getGenerationDuration() {
+			return this.generation;
+		}
+
+		/**
+		 * @return The metrics of the generation or null
+		 */
+		public GenerationMetrics getMetrics() {
+			return this.metrics;
+		}
+
+		/**
+		 * @return The cause of the failure or null
+		 */
+		public Throwable getError() {
+			return this.error;
+		}
+
+		/**
+		 * @return true, iff the TGG has been generated
+		 */
+		public boolean isSuccessful() {
+			return this.error == null;
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package de.peldszus.consistency.tgg.gen;
+
+/**
+ * The modes in which generated rule files can be written to the file system
+ *
+ * @author speldszus
+ *
+ */
+public enum EmissionMode {
+
+	/**
+	 * Each rule file is serialized directly after its creation
+	 */
+	PER_FILE,
+
+	/**
+	 * All rule files are kept in memory and serialized together in a single pass
+	 */
+	BATCHED,
+
+	/**
+	 * Each rule file is serialized directly after its creation and removed from
+	 * the resource set afterwards, so that only the schema and the rule files
+	 * currently created are kept in memory
+	 */
+	STREAMING
+
+}
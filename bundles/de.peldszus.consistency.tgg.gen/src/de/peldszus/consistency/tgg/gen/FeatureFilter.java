@@ -0,0 +1,131 @@
+package de.peldszus.consistency.tgg.gen;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EStructuralFeature;
+
+/**
+ * Selects the attributes and references for which attribute conditions and
+ * link rules are generated. Derived and volatile features are computed and not
+ * persisted, so checking them doesn't contribute to the consistency of the
+ * models. By default derived and volatile features are excluded, transient
+ * features are kept.
+ *
+ * @author speldszus
+ *
+ */
+public class FeatureFilter {
+
+	private boolean excludeDerived = true;
+	private boolean excludeTransient;
+	private boolean excludeVolatile = true;
+
+	/**
+	 * A filter accepting all features
+	 *
+	 * @return a new filter
+	 */
+	public static FeatureFilter acceptAll() {
+		return new FeatureFilter().setExcludeDerived(false).setExcludeVolatile(false);
+	}
+
+	/**
+	 * Checks if attribute conditions or link rules should be generated for the
+	 * feature
+	 *
+	 * @param feature An attribute or reference
+	 * @return true, iff the feature isn't excluded
+	 */
+	public boolean accept(EStructuralFeature feature) {
+		return !(this.excludeDerived && feature.isDerived() || this.excludeTransient && feature.isTransient()
+				|| this.excludeVolatile && feature.isVolatile());
+	}
+
+	/**
+	 * Collects the accepted attributes, e.g. of all attributes of an EClass
+	 *
+	 * @param eAttributes Some attributes
+	 * @return The accepted attributes in the given order
+	 */
+	public List<EAttribute> filter(List<EAttribute> eAttributes) {
+		final List<EAttribute> accepted = new ArrayList<>(eAttributes.size());
+		for (final EAttribute eAttribute : eAttributes) {
+			if (accept(eAttribute)) {
+				accepted.add(eAttribute);
+			}
+		}
+		return accepted;
+	}
+
+	/**
+	 * If derived features are excluded
+	 *
+	 * @return true, iff derived features are excluded
+	 */
+	public boolean isExcludeDerived() {
+		return this.excludeDerived;
+	}
+
+	/**
+	 * Sets if derived features should be excluded
+	 *
+	 * @param excludeDerived true, iff derived features should be excluded
+	 * @return this filter
+	 */
+	public FeatureFilter setExcludeDerived(boolean excludeDerived) {
+		this.excludeDerived = excludeDerived;
+		return this;
+	}
+
+	/**
+	 * If transient features are excluded
+	 *
+	 * @return true, iff transient features are excluded
+	 */
+	public boolean isExcludeTransient() {
+		return this.excludeTransient;
+	}
+
+	/**
+	 * Sets if transient features should be excluded
+	 *
+	 * @param excludeTransient true, iff transient features should be excluded
+	 * @return this filter
+	 */
+	public FeatureFilter setExcludeTransient(boolean excludeTransient) {
+		this.excludeTransient = excludeTransient;
+		return this;
+	}
+
+	/**
+	 * If volatile features are excluded
+	 *
+	 * @return true, iff volatile features are excluded
+	 */
+	public boolean isExcludeVolatile() {
+		return this.excludeVolatile;
+	}
+
+	/**
+	 * Sets if volatile features should be excluded
+	 *
+	 * @param excludeVolatile true, iff volatile features should be excluded
+	 * @return this filter
+	 */
+	public FeatureFilter setExcludeVolatile(boolean excludeVolatile) {
+		this.excludeVolatile = excludeVolatile;
+		return this;
+	}
+
+	/**
+	 * Describes the excluded kinds of features, the description is part of the
+	 * fingerprints of the rule files
+	 */
+	@Override
+	public String toString() {
+		return "exclude derived=" + this.excludeDerived + " transient=" + this.excludeTransient + " volatile="
+				+ this.excludeVolatile;
+	}
+}
@@ -0,0 +1,245 @@
+package de.peldszus.consistency.tgg.gen;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.emf.ecore.EClass;
+
+import de.peldszus.consistency.tgg.gen.handle.FingerprintHandler;
+
+/**
+ * Collects the durations of the phases of a generation, counters of the
+ * generated elements and the time needed for creating the rules of each
+ * EClass. All methods can be called concurrently. The metrics of consecutive
+ * generations with the same configuration are accumulated.
+ *
+ * @author speldszus
+ *
+ */
+public class GenerationMetrics {
+
+	/**
+	 * The measured phases of a generation
+	 */
+	public enum Phase {
+		PACKAGE_RESOLUTION("packageResolution"), ELEMENT_COLLECTION("elementCollection"),
+		CORRESPONDENCE_CREATION("correspondenceCreation"), SCHEMA_SERIALIZATION("schemaSerialization"),
+		RULE_CREATION("ruleCreation"), RULE_SAVING("ruleSaving");
+
+		private final String key;
+
+		Phase(String key) {
+			this.key = key;
+		}
+
+		/**
+		 * The name of the phase in the JSON export
+		 *
+		 * @return the key
+		 */
+		public String getKey() {
+			return this.key;
+		}
+	}
+
+	/**
+	 * The counted elements of a generation
+	 */
+	public enum Counter {
+		RULES("rules"), CORRESPONDENCES("correspondences"), ATTRIBUTE_CONDITIONS("attributeConditions"),
+		BYTES_WRITTEN("bytesWritten"), UNCHANGED_FILES("unchangedFiles"), EQUALITY_DEFINITIONS("equalityDefinitions");
+
+		private final String key;
+
+		Counter(String key) {
+			this.key = key;
+		}
+
+		/**
+		 * The name of the counter in the JSON export
+		 *
+		 * @return the key
+		 */
+		public String getKey() {
+			return this.key;
+		}
+	}
+
+	private static final double NANOS_PER_MILLI = 1_000_000d;
+
+	private final int slowest;
+	private final Map<Phase, AtomicLong> durations;
+	private final Map<Counter, AtomicLong> counters;
+	private final Map<String, Long> eClassDurations;
+
+	/**
+	 * Initializes metrics reporting the ten slowest EClasses
+	 */
+	public GenerationMetrics() {
+		this(10);
+	}
+
+	/**
+	 * Initializes metrics reporting the given number of slowest EClasses
+	 *
+	 * @param slowest The number of EClasses
+	 */
+	public GenerationMetrics(int slowest) {
+		this.slowest = slowest;
+		this.durations = new EnumMap<>(Phase.class);
+		for (final Phase phase : Phase.values()) {
+			this.durations.put(phase, new AtomicLong());
+		}
+		this.counters = new EnumMap<>(Counter.class);
+		for (final Counter counter : Counter.values()) {
+			this.counters.put(counter, new AtomicLong());
+		}
+		this.eClassDurations = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Adds the time passed since the start to the duration of the phase
+	 *
+	 * @param phase The phase
+	 * @param start The start of the measurement as returned by
+	 *              {@link System#nanoTime()}
+	 */
+	public void record(Phase phase, long start) {
+		this.durations.get(phase).addAndGet(System.nanoTime() - start);
+	}
+
+	/**
+	 * Records the time passed since the start for creating the rules of the EClass
+	 *
+	 * @param eClass The EClass
+	 * @param start  The start of the measurement as returned by
+	 *               {@link System#nanoTime()}
+	 */
+	public void record(EClass eClass, long start) {
+		this.eClassDurations.merge(FingerprintHandler.getId(eClass), System.nanoTime() - start, Long::sum);
+	}
+
+	/**
+	 * Increments the counter
+	 *
+	 * @param counter The counter
+	 * @param delta   The value to add
+	 */
+	public void increment(Counter counter, long delta) {
+		this.counters.get(counter).addAndGet(delta);
+	}
+
+	/**
+	 * The accumulated duration of the phase
+	 *
+	 * @param phase The phase
+	 * @return The duration in nanoseconds
+	 */
+	public long getDuration(Phase phase) {
+		return this.durations.get(phase).get();
+	}
+
+	/**
+	 * The value of the counter
+	 *
+	 * @param counter The counter
+	 * @return The value
+	 */
+	public long getCount(Counter counter) {
+		return this.counters.get(counter).get();
+	}
+
+	/**
+	 * The EClasses whose rules took the longest time to create
+	 *
+	 * @return The IDs of the EClasses mapped to the durations in nanoseconds,
+	 *         ordered by descending duration
+	 */
+	public Map<String, Long> getSlowestEClasses() {
+		final List<Entry<String, Long>> entries = new ArrayList<>(this.eClassDurations.entrySet());
+		entries.sort(Collections.reverseOrder(Entry.comparingByValue()));
+		final Map<String, Long> result = new LinkedHashMap<>();
+		for (final Entry<String, Long> entry : entries.subList(0, Math.min(this.slowest, entries.size()))) {
+			result.put(entry.getKey(), entry.getValue());
+		}
+		return result;
+	}
+
+	/**
+	 * Exports the metrics as JSON object. Durations are given in milliseconds.
+	 *
+	 * @return The JSON representation
+	 */
+	public String toJSON() {
+		final StringBuilder builder = new StringBuilder("{\n  \"phases\": {");
+		String separator = "\n";
+		for (final Phase phase : Phase.values()) {
+			builder.append(separator).append("    ").append(quote(phase.getKey())).append(": ")
+					.append(getDuration(phase) / NANOS_PER_MILLI);
+			separator = ",\n";
+		}
+		builder.append("\n  },\n  \"counters\": {");
+		separator = "\n";
+		for (final Counter counter : Counter.values()) {
+			builder.append(separator).append("    ").append(quote(counter.getKey())).append(": ")
+					.append(getCount(counter));
+			separator = ",\n";
+		}
+		builder.append("\n  },\n  \"slowestEClasses\": [");
+		separator = "\n";
+		for (final Entry<String, Long> entry : getSlowestEClasses().entrySet()) {
+			builder.append(separator).append("    { \"eClass\": ").append(quote(entry.getKey()))
+					.append(", \"duration\": ").append(entry.getValue() / NANOS_PER_MILLI).append(" }");
+			separator = ",\n";
+		}
+		return builder.append("\n  ]\n}\n").toString();
+	}
+
+	/**
+	 * Writes the JSON representation of the metrics into a file
+	 *
+	 * @param file The file
+	 * @throws IOException If writing the file failed
+	 */
+	public void writeJSON(Path file) throws IOException {
+		final Path parent = file.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			writer.write(toJSON());
+		}
+	}
+
+	/**
+	 * Creates a JSON string literal
+	 *
+	 * @param text A text
+	 * @return The escaped and quoted text
+	 */
+	static String quote(String text) {
+		final StringBuilder builder = new StringBuilder(text.length() + 2).append('"');
+		for (final char c : text.toCharArray()) {
+			if (c == '"' || c == '\\') {
+				builder.append('\\').append(c);
+			} else if (c < 0x20) {
+				builder.append(String.format("\\u%04x", (int) c));
+			} else {
+				builder.append(c);
+			}
+		}
+		return builder.append('"').toString();
+	}
+}
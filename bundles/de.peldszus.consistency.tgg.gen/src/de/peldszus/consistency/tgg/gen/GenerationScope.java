@@ -0,0 +1,195 @@
+package de.peldszus.consistency.tgg.gen;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+
+/**
+ * Restricts a generation to a slice of the meta models. The slice contains the
+ * root EClasses and all EClasses reachable from them over super types and
+ * references. Sub types are only followed from the roots and from reference
+ * targets, so that siblings sharing a super type aren't added. Classes can be
+ * included or excluded with patterns, excluded classes are neither part of the
+ * slice nor traversed.
+ *
+ * Patterns are matched against the qualified name of an EClass, which is the
+ * name of its EPackage and its own name separated by a dot, e.g.
+ * "library.Book". The wildcard '*' matches any sequence of characters, e.g.
+ * "library.*" matches all classes of the package "library".
+ *
+ * @author speldszus
+ *
+ */
+public class GenerationScope {
+
+	private final List<Pattern> roots;
+	private final List<Pattern> includes;
+	private final List<Pattern> excludes;
+
+	/**
+	 * Creates a scope without restrictions
+	 */
+	public GenerationScope() {
+		this.roots = new ArrayList<>();
+		this.includes = new ArrayList<>();
+		this.excludes = new ArrayList<>();
+	}
+
+	/**
+	 * Adds root EClasses from which the slice is computed. If no roots are given,
+	 * all included classes are roots.
+	 *
+	 * @param pattern A pattern matching qualified class names
+	 * @return this scope
+	 */
+	public GenerationScope addRoot(String pattern) {
+		this.roots.add(compile(pattern));
+		return this;
+	}
+
+	/**
+	 * Restricts the slice to the classes matching the pattern. If no includes are
+	 * given, all classes are included.
+	 *
+	 * @param pattern A pattern matching qualified class names
+	 * @return this scope
+	 */
+	public GenerationScope include(String pattern) {
+		this.includes.add(compile(pattern));
+		return this;
+	}
+
+	/**
+	 * Removes the classes matching the pattern from the slice
+	 *
+	 * @param pattern A pattern matching qualified class names
+	 * @return this scope
+	 */
+	public GenerationScope exclude(String pattern) {
+		this.excludes.add(compile(pattern));
+		return this;
+	}
+
+	/**
+	 * Computes the slice of the given classes
+	 *
+	 * @param eClasses All known EClasses
+	 * @return The EClasses in the slice, in the order of the given classes
+	 */
+	public Set<EClass> apply(Collection<EClass> eClasses) {
+		final Set<EClass> candidates = new LinkedHashSet<>();
+		for (final EClass eClass : eClasses) {
+			final String name = getQualifiedName(eClass);
+			if ((this.includes.isEmpty() || matches(this.includes, name)) && !matches(this.excludes, name)) {
+				candidates.add(eClass);
+			}
+		}
+
+		final Map<EClass, List<EClass>> subTypes = new HashMap<>();
+		for (final EClass eClass : candidates) {
+			for (final EClass superType : eClass.getESuperTypes()) {
+				subTypes.computeIfAbsent(superType, key -> new ArrayList<>()).add(eClass);
+			}
+		}
+
+		// Classes reached as roots or reference targets can be instantiated by any of their sub types
+		final Set<EClass> reached = new HashSet<>();
+		final Set<EClass> instantiable = new HashSet<>();
+		final Deque<EClass> queue = new ArrayDeque<>();
+		for (final EClass eClass : candidates) {
+			if (this.roots.isEmpty() || matches(this.roots, getQualifiedName(eClass))) {
+				reached.add(eClass);
+				instantiable.add(eClass);
+				queue.add(eClass);
+			}
+		}
+		while (!queue.isEmpty()) {
+			final EClass eClass = queue.poll();
+			for (final EClass superType : eClass.getESuperTypes()) {
+				if (candidates.contains(superType) && reached.add(superType)) {
+					queue.add(superType);
+				}
+			}
+			final List<EClass> targets = new ArrayList<>();
+			if (instantiable.contains(eClass)) {
+				targets.addAll(subTypes.getOrDefault(eClass, Collections.emptyList()));
+			}
+			for (final EReference eReference : eClass.getEReferences()) {
+				targets.add(eReference.getEReferenceType());
+			}
+			for (final EClass target : targets) {
+				if (candidates.contains(target) && instantiable.add(target)) {
+					reached.add(target);
+					queue.add(target);
+				}
+			}
+		}
+
+		final Set<EClass> slice = new LinkedHashSet<>();
+		for (final EClass eClass : candidates) {
+			if (reached.contains(eClass)) {
+				slice.add(eClass);
+			}
+		}
+		return slice;
+	}
+
+	/**
+	 * @param eClass An EClass
+	 * @return The name of the EPackage and the EClass separated by a dot
+	 */
+	private static String getQualifiedName(EClass eClass) {
+		final EPackage ePackage = eClass.getEPackage();
+		if (ePackage == null) {
+			return eClass.getName();
+		}
+		return ePackage.getName() + '.' + eClass.getName();
+	}
+
+	/**
+	 * @param patterns Compiled patterns
+	 * @param name     A qualified name
+	 * @return true, iff one of the patterns matches the name
+	 */
+	private static boolean matches(List<Pattern> patterns, String name) {
+		for (final Pattern pattern : patterns) {
+			if (pattern.matcher(name).matches()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Compiles a pattern containing wildcards into a regular expression
+	 *
+	 * @param pattern The pattern
+	 * @return The regular expression
+	 */
+	private static Pattern compile(String pattern) {
+		final String[] parts = pattern.split("\\*", -1);
+		final StringBuilder regex = new StringBuilder();
+		for (int i = 0; i < parts.length; i++) {
+			if (i > 0) {
+				regex.append(".*");
+			}
+			if (!parts[i].isEmpty()) {
+				regex.append(Pattern.quote(parts[i]));
+			}
+		}
+		return Pattern.compile(regex.toString());
+	}
+}
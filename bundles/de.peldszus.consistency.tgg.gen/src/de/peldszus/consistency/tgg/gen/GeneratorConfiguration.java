@@ -0,0 +1,252 @@
+package de.peldszus.consistency.tgg.gen;
+
+/**
+ * The configuration of a TGG generation run
+ *
+ * @author speldszus
+ *
+ */
+public class GeneratorConfiguration {
+
+	private EmissionMode emissionMode = EmissionMode.BATCHED;
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+	private GenerationMetrics metrics = new GenerationMetrics();
+	private MetamodelCache metamodelCache;
+	private boolean binaryOutput;
+	private GenerationScope scope;
+	private RuleGrouping ruleGrouping = RuleGrouping.PER_RULE;
+	private int groupSize = 100;
+	private boolean textEmission = true;
+	private FeatureFilter featureFilter = new FeatureFilter();
+
+	/**
+	 * The mode in which the generated rule files are written
+	 *
+	 * @return the emission mode
+	 */
+	public EmissionMode getEmissionMode() {
+		return this.emissionMode;
+	}
+
+	/**
+	 * Sets the mode in which the generated rule files are written
+	 *
+	 * @param emissionMode The emission mode
+	 * @return this configuration
+	 * @throws IllegalArgumentException If the streaming mode is combined with the
+	 *                                  binary output
+	 */
+	public GeneratorConfiguration setEmissionMode(EmissionMode emissionMode) {
+		if (emissionMode == EmissionMode.STREAMING && this.binaryOutput) {
+			throw new IllegalArgumentException("The streaming mode cannot be combined with the binary output");
+		}
+		this.emissionMode = emissionMode;
+		return this;
+	}
+
+	/**
+	 * The number of threads used for creating rules
+	 *
+	 * @return the parallelism
+	 */
+	public int getParallelism() {
+		return this.parallelism;
+	}
+
+	/**
+	 * Sets the number of threads used for creating rules, a value of one creates
+	 * all rules in the calling thread
+	 *
+	 * @param parallelism The number of threads
+	 * @return this configuration
+	 */
+	public GeneratorConfiguration setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("The parallelism has to be at least one: " + parallelism);
+		}
+		this.parallelism = parallelism;
+		return this;
+	}
+
+	/**
+	 * The metrics into which the generation reports durations and counters
+	 *
+	 * @return the metrics
+	 */
+	public GenerationMetrics getMetrics() {
+		return this.metrics;
+	}
+
+	/**
+	 * Sets the metrics into which the generation reports durations and counters
+	 *
+	 * @param metrics The metrics
+	 * @return this configuration
+	 */
+	public GeneratorConfiguration setMetrics(GenerationMetrics metrics) {
+		this.metrics = metrics;
+		return this;
+	}
+
+	/**
+	 * The cache used for loading meta models
+	 *
+	 * @return the cache or null if meta models are always parsed
+	 */
+	public MetamodelCache getMetamodelCache() {
+		return this.metamodelCache;
+	}
+
+	/**
+	 * Sets the cache used for loading meta models
+	 *
+	 * @param metamodelCache The cache or null if meta models should always be
+	 *                       parsed
+	 * @return this configuration
+	 */
+	public GeneratorConfiguration setMetamodelCache(MetamodelCache metamodelCache) {
+		this.metamodelCache = metamodelCache;
+		return this;
+	}
+
+	/**
+	 * If the generated TGG is additionally written into a single binary resource
+	 *
+	 * @return true, iff the binary resource is written
+	 */
+	public boolean isBinaryOutput() {
+		return this.binaryOutput;
+	}
+
+	/**
+	 * Sets if the generated TGG should additionally be written into a single
+	 * binary resource with an index of the rule names. As the binary resource has
+	 * to contain all rules, all rule files are generated again on each update and
+	 * are kept in memory until the resource is saved. Therefore, the binary output
+	 * cannot be combined with the {@link EmissionMode#STREAMING} mode.
+	 *
+	 * @param binaryOutput true, iff the binary resource should be written
+	 * @return this configuration
+	 * @throws IllegalArgumentException If the binary output is combined with the
+	 *                                  streaming mode
+	 */
+	public GeneratorConfiguration setBinaryOutput(boolean binaryOutput) {
+		if (binaryOutput && this.emissionMode == EmissionMode.STREAMING) {
+			throw new IllegalArgumentException("The binary output cannot be combined with the streaming mode");
+		}
+		this.binaryOutput = binaryOutput;
+		return this;
+	}
+
+	/**
+	 * The scope restricting the generation to a slice of the meta models
+	 *
+	 * @return the scope or null if rules are generated for all elements
+	 */
+	public GenerationScope getScope() {
+		return this.scope;
+	}
+
+	/**
+	 * Sets the scope restricting the generation to a slice of the meta models
+	 *
+	 * @param scope The scope or null if rules should be generated for all
+	 *              elements
+	 * @return this configuration
+	 */
+	public GeneratorConfiguration setScope(GenerationScope scope) {
+		this.scope = scope;
+		return this;
+	}
+
+	/**
+	 * The strategy for distributing the rules over rule files
+	 *
+	 * @return the rule grouping
+	 */
+	public RuleGrouping getRuleGrouping() {
+		return this.ruleGrouping;
+	}
+
+	/**
+	 * Sets the strategy for distributing the rules over rule files
+	 *
+	 * @param ruleGrouping The rule grouping
+	 * @return this configuration
+	 */
+	public GeneratorConfiguration setRuleGrouping(RuleGrouping ruleGrouping) {
+		this.ruleGrouping = ruleGrouping;
+		return this;
+	}
+
+	/**
+	 * The maximal number of EClasses and EReferences whose rules are written into
+	 * the same file with the grouping {@link RuleGrouping#FIXED_SIZE}
+	 *
+	 * @return the group size
+	 */
+	public int getGroupSize() {
+		return this.groupSize;
+	}
+
+	/**
+	 * Sets the maximal number of EClasses and EReferences whose rules are written
+	 * into the same file with the grouping {@link RuleGrouping#FIXED_SIZE}
+	 *
+	 * @param groupSize The group size
+	 * @return this configuration
+	 */
+	public GeneratorConfiguration setGroupSize(int groupSize) {
+		if (groupSize < 1) {
+			throw new IllegalArgumentException("The group size has to be at least one: " + groupSize);
+		}
+		this.groupSize = groupSize;
+		return this;
+	}
+
+	/**
+	 * If the rule files are written by the text emitter instead of the Xtext
+	 * serializer
+	 *
+	 * @return true, iff the text emitter is used
+	 */
+	public boolean isTextEmission() {
+		return this.textEmission;
+	}
+
+	/**
+	 * Sets if the rule files should be written by the text emitter instead of the
+	 * Xtext serializer, which is the default. Rule files not supported by the
+	 * emitter are still serialized by Xtext.
+	 *
+	 * @param textEmission true, iff the text emitter should be used
+	 * @return this configuration
+	 */
+	public GeneratorConfiguration setTextEmission(boolean textEmission) {
+		this.textEmission = textEmission;
+		return this;
+	}
+
+	/**
+	 * The filter selecting the features for which attribute conditions and link
+	 * rules are generated
+	 *
+	 * @return the feature filter
+	 */
+	public FeatureFilter getFeatureFilter() {
+		return this.featureFilter;
+	}
+
+	/**
+	 * Sets the filter selecting the features for which attribute conditions and
+	 * link rules are generated, by default derived and volatile features are
+	 * excluded
+	 *
+	 * @param featureFilter The feature filter
+	 * @return this configuration
+	 */
+	public GeneratorConfiguration setFeatureFilter(FeatureFilter featureFilter) {
+		this.featureFilter = featureFilter;
+		return this;
+	}
+}
@@ -0,0 +1,314 @@
+package de.peldszus.consistency.tgg.gen;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl.EObjectInputStream;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl.EObjectOutputStream;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.XMLResource;
+import org.eclipse.emf.ecore.xmi.impl.EcoreResourceFactoryImpl;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
+
+import de.peldszus.consistency.tgg.gen.handle.ContentManifest;
+
+/**
+ * A persistent cache of parsed meta models. Each loaded ecore file is stored
+ * in the binary EMF format, keyed by its URI and the hash of its content. When
+ * the same file is loaded again, the binary representation is read instead of
+ * parsing the XMI. As the key covers the content, modified meta models are
+ * parsed again automatically.
+ *
+ * Additionally, the cache records the resources of resolved package closures.
+ * If the same meta models are resolved again, the recorded resources are loaded
+ * from the cache and the proxies are resolved on demand instead of traversing
+ * the contents of all resources.
+ *
+ * @author speldszus
+ *
+ */
+public class MetamodelCache {
+
+	/**
+	 * The version of the cache format, which is part of all keys
+	 */
+	private static final String FORMAT = "1";
+
+	private static final String ECORE_EXTENSION = "ecore";
+	private static final String ENTRY_EXTENSION = ".bin";
+	private static final String CLOSURE_EXTENSION = ".closure";
+
+	private static final EcoreResourceFactoryImpl ECORE_FACTORY = new EcoreResourceFactoryImpl();
+
+	private final Path directory;
+
+	/**
+	 * Initializes a cache storing its entries in the given folder
+	 *
+	 * @param directory The folder
+	 */
+	public MetamodelCache(Path directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Lets the resource set load all ecore files through this cache
+	 *
+	 * @param resourceSet A resource set
+	 */
+	public void install(ResourceSet resourceSet) {
+		resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap().put(ECORE_EXTENSION,
+				(Resource.Factory) uri -> new CachedResource(uri, (XMLResource) ECORE_FACTORY.createResource(uri)));
+	}
+
+	/**
+	 * Resolves the package closure of the given resources. If the closure has been
+	 * resolved before and none of its resources changed, the resources of the
+	 * closure are loaded from the cache and all proxies are resolved on demand.
+	 * Otherwise, all proxies are resolved and the closure is recorded.
+	 *
+	 * @param resources The resources of the meta models
+	 */
+	public void resolveAll(Collection<Resource> resources) {
+		if (resources.isEmpty()) {
+			return;
+		}
+		final Set<String> keys = new TreeSet<>();
+		for (final Resource resource : resources) {
+			if (!(resource instanceof CachedResource) || ((CachedResource) resource).key == null) {
+				resolveAllUncached(resources);
+				return;
+			}
+			keys.add(((CachedResource) resource).key);
+		}
+		final byte[] content = String.join("\n", keys).getBytes(StandardCharsets.UTF_8);
+		final Path closure = this.directory.resolve(getKey(URI.createURI(CLOSURE_EXTENSION), content)
+				+ CLOSURE_EXTENSION);
+		if (!loadClosure(closure, resources)) {
+			resolveAllUncached(resources);
+			storeClosure(closure, resources);
+		}
+	}
+
+	/**
+	 * Resolves all proxies of the resources
+	 *
+	 * @param resources The resources of the meta models
+	 */
+	private static void resolveAllUncached(Collection<Resource> resources) {
+		for (final Resource resource : resources) {
+			EcoreUtil.resolveAll(resource);
+		}
+	}
+
+	/**
+	 * Loads all resources of a recorded closure into the resource sets of the
+	 * given resources
+	 *
+	 * @param closure   The file of the recorded closure
+	 * @param resources The resources of the meta models
+	 * @return true, iff the closure has been recorded and all of its resources are
+	 *         unchanged
+	 */
+	private static boolean loadClosure(Path closure, Collection<Resource> resources) {
+		if (!Files.isRegularFile(closure)) {
+			return false;
+		}
+		final ResourceSet resourceSet = resources.iterator().next().getResourceSet();
+		try (BufferedReader reader = Files.newBufferedReader(closure, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				final int separator = line.indexOf('\t');
+				if (separator <= 0) {
+					return false;
+				}
+				final Resource resource = resourceSet.getResource(URI.createURI(line.substring(separator + 1)), true);
+				if (!(resource instanceof CachedResource)
+						|| !line.substring(0, separator).equals(((CachedResource) resource).key)) {
+					return false;
+				}
+			}
+			return true;
+		} catch (final IOException | RuntimeException e) {
+			// The closure cannot be loaded, it is resolved again and the record replaced
+			return false;
+		}
+	}
+
+	/**
+	 * Records the resources of a resolved closure
+	 *
+	 * @param closure   The file of the closure
+	 * @param resources The resources of the meta models
+	 */
+	private static void storeClosure(Path closure, Collection<Resource> resources) {
+		final Map<String, String> entries = new TreeMap<>();
+		for (final Resource resource : resources.iterator().next().getResourceSet().getResources()) {
+			if (resource instanceof CachedResource && ((CachedResource) resource).key != null) {
+				entries.put(resource.getURI().toString(), ((CachedResource) resource).key);
+			}
+		}
+		try {
+			Files.createDirectories(closure.getParent());
+			try (BufferedWriter writer = Files.newBufferedWriter(closure, StandardCharsets.UTF_8)) {
+				for (final Entry<String, String> entry : entries.entrySet()) {
+					writer.write(entry.getValue());
+					writer.write('\t');
+					writer.write(entry.getKey());
+					writer.newLine();
+				}
+			}
+		} catch (final IOException e) {
+			// Without the record, the closure is resolved completely on the next generation
+		}
+	}
+
+	/**
+	 * The folder containing the entries of the cache
+	 *
+	 * @return the folder
+	 */
+	public Path getDirectory() {
+		return this.directory;
+	}
+
+	/**
+	 * Deletes all entries of the cache
+	 *
+	 * @throws IOException If an entry couldn't be deleted
+	 */
+	public void clear() throws IOException {
+		if (!Files.isDirectory(this.directory)) {
+			return;
+		}
+		try (DirectoryStream<Path> entries = Files.newDirectoryStream(this.directory,
+				"*{" + ENTRY_EXTENSION + ',' + CLOSURE_EXTENSION + '}')) {
+			for (final Path entry : entries) {
+				Files.deleteIfExists(entry);
+			}
+		}
+	}
+
+	/**
+	 * Calculates the key of an ecore file
+	 *
+	 * @param uri     The URI of the file
+	 * @param content The content of the file
+	 * @return The key as hex string
+	 */
+	private static String getKey(URI uri, byte[] content) {
+		try {
+			final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update((FORMAT + '\n' + uri + '\n').getBytes(StandardCharsets.UTF_8));
+			final byte[] bytes = digest.digest(content);
+			return ContentManifest.toHex(bytes);
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * An XMI resource which is loaded from the cache if possible and which adds
+	 * itself to the cache after parsing. The encoding and the default options are
+	 * taken from the resources created by the {@link EcoreResourceFactoryImpl}.
+	 */
+	private final class CachedResource extends XMIResourceImpl {
+
+		/**
+		 * The key of the loaded content or null if the resource hasn't been loaded
+		 */
+		private String key;
+
+		/**
+		 * @param uri      The URI of the resource
+		 * @param template A resource created by the ecore resource factory
+		 */
+		private CachedResource(URI uri, XMLResource template) {
+			super(uri);
+			setEncoding(template.getEncoding());
+			getDefaultLoadOptions().putAll(template.getDefaultLoadOptions());
+			getDefaultSaveOptions().putAll(template.getDefaultSaveOptions());
+		}
+
+		@Override
+		protected boolean useIDs() {
+			// Like the ecore resources, IDs are only used if they have been loaded
+			return this.eObjectToIDMap != null || this.idToEObjectMap != null;
+		}
+
+		@Override
+		public void doLoad(InputStream inputStream, Map<?, ?> options) throws IOException {
+			final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+			final byte[] chunk = new byte[8192];
+			int read;
+			while ((read = inputStream.read(chunk)) != -1) {
+				buffer.write(chunk, 0, read);
+			}
+			final byte[] content = buffer.toByteArray();
+			this.key = getKey(getURI(), content);
+			final Path entry = MetamodelCache.this.directory.resolve(this.key + ENTRY_EXTENSION);
+			if (Files.isRegularFile(entry)) {
+				try (InputStream in = new BufferedInputStream(Files.newInputStream(entry))) {
+					new EObjectInputStream(in, Collections.emptyMap()).loadResource(this);
+					return;
+				} catch (final IOException | RuntimeException e) {
+					// The entry is corrupt, the meta model is parsed again and the entry replaced
+					getContents().clear();
+				}
+			}
+			super.doLoad(new ByteArrayInputStream(content), options);
+			store(entry);
+		}
+
+		/**
+		 * Writes the binary representation of this resource into the cache
+		 *
+		 * @param entry The file of the cache entry
+		 * @throws IOException If the entry couldn't be written
+		 */
+		private void store(Path entry) throws IOException {
+			Files.createDirectories(entry.getParent());
+			final Path tmp = Files.createTempFile(entry.getParent(), entry.getFileName().toString(), ".tmp");
+			try {
+				try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+					final EObjectOutputStream eObjectOutputStream = new EObjectOutputStream(out,
+							Collections.emptyMap());
+					eObjectOutputStream.saveResource(this);
+					eObjectOutputStream.flush();
+				}
+				try {
+					Files.move(tmp, entry, StandardCopyOption.ATOMIC_MOVE);
+				} catch (final AtomicMoveNotSupportedException e) {
+					Files.move(tmp, entry, StandardCopyOption.REPLACE_EXISTING);
+				}
+			} finally {
+				Files.deleteIfExists(tmp);
+			}
+		}
+	}
+}
@@ -0,0 +1,162 @@
+package de.peldszus.consistency.tgg.gen;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.xmi.impl.EcoreResourceFactoryImpl;
+
+/**
+ * Loads meta models in parallel. Each ecore file is parsed into its own
+ * resource set by a bounded number of threads, as resource sets must not be
+ * accessed concurrently. Afterwards the resources are moved into a single
+ * resource set in the order of their URIs, so the result doesn't depend on the
+ * order in which the files have been parsed. References to other files stay
+ * proxies until they are resolved in the target resource set, so files
+ * referenced by several meta models are only parsed once.
+ *
+ * @author speldszus
+ *
+ */
+public class MetamodelLoader {
+
+	private static final String ECORE_EXTENSION = "ecore";
+
+	private final int parallelism;
+	private final MetamodelCache cache;
+	private final Map<URI, Exception> failures;
+
+	/**
+	 * Initializes a loader
+	 *
+	 * @param parallelism The maximal number of files parsed at the same time
+	 * @param cache       The cache used for loading the meta models or null
+	 */
+	public MetamodelLoader(int parallelism, MetamodelCache cache) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("The parallelism has to be at least one: " + parallelism);
+		}
+		this.parallelism = parallelism;
+		this.cache = cache;
+		this.failures = new LinkedHashMap<>();
+	}
+
+	/**
+	 * Loads the ecore files into the target resource set. Files which cannot be
+	 * loaded are skipped and reported by {@link #getFailures()} until the next
+	 * call of this method.
+	 *
+	 * @param uris   The URIs of the ecore files
+	 * @param target The resource set into which the resources should be moved
+	 * @return The EPackages contained in the files, ordered by the URIs of the
+	 *         files
+	 * @throws IOException If the loading has been interrupted
+	 */
+	public List<EPackage> load(Collection<URI> uris, ResourceSet target) throws IOException {
+		this.failures.clear();
+		final TreeSet<URI> unique = new TreeSet<>(Comparator.comparing(URI::toString));
+		unique.addAll(uris);
+		final List<URI> sorted = new ArrayList<>(unique);
+		final List<Future<ResourceSet>> loaded = new ArrayList<>(sorted.size());
+		final ExecutorService executor = Executors
+				.newFixedThreadPool(Math.max(1, Math.min(this.parallelism, sorted.size())));
+		try {
+			for (final URI uri : sorted) {
+				loaded.add(executor.submit(() -> loadIsolated(uri)));
+			}
+			final List<EPackage> ePackages = new ArrayList<>();
+			for (int i = 0; i < sorted.size(); i++) {
+				final URI uri = sorted.get(i);
+				try {
+					ePackages.addAll(merge(uri, loaded.get(i).get(), target));
+				} catch (final ExecutionException e) {
+					this.failures.put(uri, e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+				}
+			}
+			return ePackages;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("The loading of the meta models has been interrupted.", e);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * The files which couldn't be loaded by the last call of
+	 * {@link #load(Collection, ResourceSet)}
+	 *
+	 * @return An unmodifiable map from the URIs of the files to the causes
+	 */
+	public Map<URI, Exception> getFailures() {
+		return Collections.unmodifiableMap(this.failures);
+	}
+
+	/**
+	 * Parses a single file into a new resource set without resolving its
+	 * references to other files
+	 *
+	 * @param uri The URI of the file
+	 * @return The resource set containing the resource of the file
+	 */
+	private ResourceSet loadIsolated(URI uri) {
+		final ResourceSet resourceSet = new ResourceSetImpl();
+		resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap().put(ECORE_EXTENSION,
+				new EcoreResourceFactoryImpl());
+		if (this.cache != null) {
+			this.cache.install(resourceSet);
+		}
+		resourceSet.getResource(uri, true);
+		return resourceSet;
+	}
+
+	/**
+	 * Moves the resources of an isolated resource set into the target resource
+	 * set. Resources whose URI is already present in the target are discarded.
+	 *
+	 * @param uri      The URI of the loaded file
+	 * @param isolated The isolated resource set
+	 * @param target   The target resource set
+	 * @return The EPackages contained in the resource of the file
+	 */
+	private List<EPackage> merge(URI uri, ResourceSet isolated, ResourceSet target) {
+		final List<EPackage> ePackages = new ArrayList<>();
+		for (final Resource resource : new ArrayList<>(isolated.getResources())) {
+			final Resource existing = target.getResource(resource.getURI(), false);
+			final Resource merged;
+			if (existing == null) {
+				target.getResources().add(resource);
+				merged = resource;
+			} else {
+				merged = existing;
+			}
+			if (resource.getURI().equals(uri)) {
+				for (final EObject eObject : merged.getContents()) {
+					if (eObject instanceof EPackage) {
+						ePackages.add((EPackage) eObject);
+					} else {
+						this.failures.put(uri,
+								new IOException("Loaded object is no EPackage: " + eObject.eClass().getName()));
+					}
+				}
+			}
+		}
+		return ePackages;
+	}
+}
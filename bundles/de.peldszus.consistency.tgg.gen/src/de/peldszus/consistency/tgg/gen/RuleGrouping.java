@@ -0,0 +1,37 @@
+package de.peldszus.consistency.tgg.gen;
+
+/**
+ * The strategies for distributing the generated rules over rule files. The
+ * rules are the same for all strategies, only the files containing them differ.
+ *
+ * @author speldszus
+ *
+ */
+public enum RuleGrouping {
+
+	/**
+	 * The rules of each EClass and each link rule are written into an own file
+	 */
+	PER_RULE,
+
+	/**
+	 * The rules of all EClasses of an EPackage and the link rules of their
+	 * EReferences are written into one file per EPackage
+	 */
+	PER_PACKAGE,
+
+	/**
+	 * The rules of all EClasses which are transitively contained in the same root
+	 * class and the link rules of their EReferences are written into one file per
+	 * root class
+	 */
+	PER_CONTAINMENT_TREE,
+
+	/**
+	 * The rules are written in the order of their creation into files containing
+	 * the rules of at most {@link GeneratorConfiguration#getGroupSize()} EClasses
+	 * and EReferences
+	 */
+	FIXED_SIZE
+
+}
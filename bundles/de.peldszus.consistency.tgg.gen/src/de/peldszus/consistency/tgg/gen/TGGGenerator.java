@@ -0,0 +1,266 @@
+package de.peldszus.consistency.tgg.gen;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.URIConverter;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.moflon.tgg.mosl.TGGStandaloneSetup;
+import org.moflon.tgg.mosl.tgg.AttrCondDef;
+import org.moflon.tgg.mosl.tgg.CorrType;
+import org.moflon.tgg.mosl.tgg.Schema;
+
+import de.peldszus.consistency.tgg.gen.GenerationMetrics.Counter;
+import de.peldszus.consistency.tgg.gen.GenerationMetrics.Phase;
+import de.peldszus.consistency.tgg.gen.create.AttributeConditionCreator;
+import de.peldszus.consistency.tgg.gen.create.BinaryTGGWriter;
+import de.peldszus.consistency.tgg.gen.create.DirectoryLocation;
+import de.peldszus.consistency.tgg.gen.create.RuleCreator;
+import de.peldszus.consistency.tgg.gen.create.RuleGroup;
+import de.peldszus.consistency.tgg.gen.create.RuleGrouper;
+import de.peldszus.consistency.tgg.gen.create.SchemaCreator;
+import de.peldszus.consistency.tgg.gen.create.TGGLocation;
+import de.peldszus.consistency.tgg.gen.handle.ConainerHandler;
+import de.peldszus.consistency.tgg.gen.handle.ContentManifest;
+import de.peldszus.consistency.tgg.gen.handle.CorrespondenceHandler;
+import de.peldszus.consistency.tgg.gen.handle.FingerprintHandler;
+import de.peldszus.consistency.tgg.gen.handle.ResourceContentHandler;
+
+/**
+ * The engine generating the schema and the rules of a TGG for a set of meta
+ * models. The engine doesn't require an Eclipse workspace, the files can be
+ * written into any location.
+ *
+ * @author speldszus
+ *
+ */
+public class TGGGenerator {
+
+	private static final String TGG_EXTENSION = "tgg";
+
+	private final GeneratorConfiguration configuration;
+
+	/**
+	 * Initializes a generator with the default configuration
+	 */
+	public TGGGenerator() {
+		this(new GeneratorConfiguration());
+	}
+
+	/**
+	 * Initializes a generator with the given configuration
+	 *
+	 * @param configuration The configuration of the generation
+	 */
+	public TGGGenerator(GeneratorConfiguration configuration) {
+		this.configuration = configuration;
+	}
+
+	/**
+	 * Generates the TGG files for translating the given meta models into a folder
+	 * of the file system. If the folder contains the files of a previous
+	 * generation, only the files affected by changes of the meta models are
+	 * regenerated.
+	 *
+	 * @param ePackages The meta models
+	 * @param name      The name of the TGG
+	 * @param output    The folder into which the files should be written
+	 * @param library   The eMoflon attribute condition library, which is copied
+	 *                  into the folder, or null if no library should be used
+	 * @param monitor   A progress monitor
+	 * @throws IOException If reading or writing a file failed
+	 */
+	public void generate(Collection<EPackage> ePackages, String name, Path output, Path library,
+			IProgressMonitor monitor) throws IOException {
+		registerTGGLanguage();
+		monitor.subTask("Resolving meta models");
+		final ResourceContentHandler packageElements = new ResourceContentHandler(ePackages, this.configuration);
+		final DirectoryLocation location = new DirectoryLocation(output, name);
+		Set<AttrCondDef> defs = new LinkedHashSet<>();
+		if (library != null) {
+			final Path copy = location.getPath(DirectoryLocation.LIBRARY_FILE);
+			Files.createDirectories(copy.getParent());
+			Files.copy(library, copy, StandardCopyOption.REPLACE_EXISTING);
+			defs = AttributeConditionCreator.loadLibrary(packageElements.getResourceSet(),
+					URI.createFileURI(copy.toAbsolutePath().toString()), copy);
+		}
+		generate(packageElements, location, new AttributeConditionCreator(defs), monitor);
+	}
+
+	/**
+	 * Generates all required TGG files into the location. The fingerprints of a
+	 * previous generation are loaded from the location, if they are not available
+	 * all files are generated.
+	 *
+	 * @param packageElements The handler used to discover all required elements
+	 * @param location        The location into which the files should be written
+	 * @param attrConds       The available attribute condition definitions
+	 * @param monitor         A progress monitor
+	 * @throws IOException If serializing a file or deleting an outdated rule
+	 *                     failed
+	 */
+	public void generate(ResourceContentHandler packageElements, TGGLocation location,
+			AttributeConditionCreator attrConds, IProgressMonitor monitor) throws IOException {
+		final Path fingerprintFile = location.getPath(FingerprintHandler.FINGERPRINT_FILE);
+		final Map<String, String> previous = FingerprintHandler.load(fingerprintFile);
+		final Path manifestFile = location.getPath(ContentManifest.MANIFEST_FILE);
+		final ContentManifest contentManifest = ContentManifest.load(manifestFile);
+
+		final GenerationMetrics metrics = this.configuration.getMetrics();
+
+		final Set<EClass> allEClasses = packageElements.getAllEClasses();
+		final XtextResourceSet resourceSet = packageElements.getResourceSet();
+		monitor.subTask("Creating correspondence types");
+		long start = System.nanoTime();
+		final CorrespondenceHandler correspondences = new CorrespondenceHandler(allEClasses);
+		metrics.record(Phase.CORRESPONDENCE_CREATION, start);
+		metrics.increment(Counter.CORRESPONDENCES, correspondences.allCorrespondences().size());
+		final String schemaName = location.getName();
+		final FeatureFilter featureFilter = this.configuration.getFeatureFilter();
+		final FingerprintHandler fingerprints = new FingerprintHandler(packageElements, schemaName, featureFilter);
+
+		monitor.subTask("Creating schema");
+		final SchemaCreator schemaCreator = new SchemaCreator(location, resourceSet);
+		schemaCreator.setContentManifest(contentManifest);
+		final Set<CorrType> corrTypes = correspondences.allCorrespondences().stream()
+				.sorted(Comparator.comparing(CorrType::getName)).collect(Collectors.toCollection(LinkedHashSet::new));
+		final List<EClass> concreteEClasses = new ArrayList<>(allEClasses.size());
+		for (final EClass eClass : allEClasses) {
+			if (!eClass.isAbstract() && !eClass.isInterface()) {
+				concreteEClasses.add(eClass);
+			}
+		}
+		final Set<EDataType> missingEqualities = getMissingEqualityTypes(concreteEClasses,
+				packageElements.getAllEDataTypes(), featureFilter, attrConds);
+		fingerprints.addSchemaEqualityConditions(missingEqualities);
+		metrics.increment(Counter.EQUALITY_DEFINITIONS, missingEqualities.size());
+		final Schema schema = schemaCreator.buildSchema(schemaName, packageElements.getAllEPackages(),
+				missingEqualities, corrTypes);
+		if (fingerprints.isSchemaModified(previous) || !location.getSchemaFile().exists()) {
+			start = System.nanoTime();
+			final long written = schemaCreator.save(schema);
+			metrics.record(Phase.SCHEMA_SERIALIZATION, start);
+			if (written == 0) {
+				metrics.increment(Counter.UNCHANGED_FILES, 1);
+			} else {
+				metrics.increment(Counter.BYTES_WRITTEN, written);
+			}
+		}
+		attrConds.addAll(schema.getAttributeCondDefs());
+
+		final RuleCreator ruleCreator = new RuleCreator(packageElements, correspondences, attrConds, location,
+				this.configuration.getEmissionMode(), metrics);
+		ruleCreator.setContentManifest(contentManifest);
+		ruleCreator.setFeatureFilter(featureFilter);
+		if (!this.configuration.isTextEmission()) {
+			ruleCreator.setTextEmitter(null);
+		}
+		BinaryTGGWriter binaryWriter = null;
+		if (this.configuration.isBinaryOutput()) {
+			binaryWriter = new BinaryTGGWriter(location, schema, attrConds.getAttrs());
+			ruleCreator.setBinaryWriter(binaryWriter);
+		}
+		final HashSet<EReference> seen = new HashSet<>();
+		final List<EReference> links = new ArrayList<>();
+		for (final EReference eReference : packageElements.getAllEReferences()) {
+			if (!eReference.isContainer() && !eReference.isContainment() && featureFilter.accept(eReference)
+					&& !seen.contains(eReference)) {
+				links.add(eReference);
+				seen.add(eReference);
+				final EReference opposite = eReference.getEOpposite();
+				if (opposite != null) {
+					seen.add(opposite);
+				}
+			}
+		}
+
+		concreteEClasses.sort(Comparator.comparing((EClass eClass) -> FingerprintHandler.getId(eClass)));
+		links.sort(Comparator.comparing((EReference eReference) -> FingerprintHandler.getId(eReference)));
+
+		fingerprints.setEqualityConditions(attrConds::findEqualsConditionForType);
+		final List<RuleGroup> groups = new RuleGrouper(this.configuration.getRuleGrouping(),
+				this.configuration.getGroupSize(), new ConainerHandler(allEClasses)).group(concreteEClasses, links);
+		for (final RuleGroup group : groups) {
+			fingerprints.addRuleFile(group.getName(), group.getEClasses(), group.getEReferences());
+		}
+
+		if (!previous.isEmpty()) {
+			monitor.subTask(fingerprints.getModifiedElements(previous).size() + " meta model elements changed");
+			// The binary resource contains all rules, so all rule files have to be created again
+			if (binaryWriter == null) {
+				final Set<String> modified = fingerprints.getModifiedRuleFiles(previous);
+				final URIConverter converter = resourceSet.getURIConverter();
+				// Rule files deleted from the location are created again
+				groups.removeIf(group -> !modified.contains(group.getName())
+						&& converter.exists(location.getRuleURI(group.getName()), null));
+			}
+			for (final String removed : fingerprints.getRemovedRuleFiles(previous)) {
+				ruleCreator.deleteRuleFile(removed);
+			}
+		}
+		monitor.subTask("Creating " + groups.size() + " rule files");
+		ruleCreator.createRuleFiles(groups, schema, this.configuration.getParallelism());
+		if (binaryWriter != null) {
+			binaryWriter.save();
+		}
+		fingerprints.store(fingerprintFile);
+		contentManifest.store(manifestFile);
+		monitor.subTask(metrics.getCount(Counter.RULES) + " rules created, "
+				+ metrics.getCount(Counter.BYTES_WRITTEN) + " bytes written");
+	}
+
+	/**
+	 * Collects the types of the translated attributes for which the schema has to
+	 * define an equality condition. Types covered by the available definitions,
+	 * e.g. of the eMoflon library, and types which aren't used by any rule are
+	 * skipped.
+	 *
+	 * @param eClasses   The EClasses for which rules are created
+	 * @param eDataTypes The data types of the meta models
+	 * @param filter     The filter selecting the translated attributes
+	 * @param attrConds  The available attribute condition definitions
+	 * @return The data types in the order of their first usage
+	 */
+	private static Set<EDataType> getMissingEqualityTypes(Collection<EClass> eClasses, Set<EDataType> eDataTypes,
+			FeatureFilter filter, AttributeConditionCreator attrConds) {
+		final Set<EDataType> missing = new LinkedHashSet<>();
+		for (final EClass eClass : eClasses) {
+			for (final EAttribute eAttribute : filter.filter(eClass.getEAllAttributes())) {
+				final EDataType eDataType = eAttribute.getEAttributeType();
+				if (eDataTypes.contains(eDataType) && !attrConds.hasEqualsCondition(eDataType)) {
+					missing.add(eDataType);
+				}
+			}
+		}
+		return missing;
+	}
+
+	/**
+	 * Registers the TGG language at EMF if this hasn't been done by the Eclipse
+	 * platform
+	 */
+	private static synchronized void registerTGGLanguage() {
+		if (!Resource.Factory.Registry.INSTANCE.getExtensionToFactoryMap().containsKey(TGG_EXTENSION)) {
+			TGGStandaloneSetup.doSetup();
+		}
+	}
+}
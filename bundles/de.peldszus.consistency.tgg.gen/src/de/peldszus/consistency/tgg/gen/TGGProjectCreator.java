@@ -1,24 +1,39 @@
 package de.peldszus.consistency.tgg.gen;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceRuleFactory;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRunnable;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.emf.ecore.EClass;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.ISchedulingRule;
+import org.eclipse.core.runtime.jobs.MultiRule;
 import org.eclipse.emf.ecore.EPackage;
-import org.eclipse.emf.ecore.EReference;
 import org.eclipse.xtext.resource.XtextResourceSet;
 import org.gravity.eclipse.importer.DuplicateProjectNameException;
-import org.moflon.tgg.mosl.tgg.Schema;
 
+import de.peldszus.consistency.tgg.gen.create.DirectoryLocation;
 import de.peldszus.consistency.tgg.gen.create.EclipseProjectCreator;
-import de.peldszus.consistency.tgg.gen.create.RuleCreator;
-import de.peldszus.consistency.tgg.gen.create.SchemaCreator;
-import de.peldszus.consistency.tgg.gen.handle.CorrespondenceHandler;
+import de.peldszus.consistency.tgg.gen.create.ProjectLocation;
+import de.peldszus.consistency.tgg.gen.handle.FingerprintHandler;
 import de.peldszus.consistency.tgg.gen.handle.ResourceContentHandler;
 
 /**
@@ -28,8 +43,25 @@ import de.peldszus.consistency.tgg.gen.handle.ResourceContentHandler;
  */
 public class TGGProjectCreator {
 
+	private final GeneratorConfiguration configuration;
 	private IProject project;
 
+	/**
+	 * Initializes a creator with the default configuration
+	 */
+	public TGGProjectCreator() {
+		this(new GeneratorConfiguration());
+	}
+
+	/**
+	 * Initializes a creator with the given configuration
+	 *
+	 * @param configuration The configuration of the generation
+	 */
+	public TGGProjectCreator(GeneratorConfiguration configuration) {
+		this.configuration = configuration;
+	}
+
 	/**
 	 * Create a new TGG project for translating the given meta models
 	 *
@@ -42,10 +74,89 @@ public class TGGProjectCreator {
 	 */
 	public void createTGGProject(Collection<EPackage> ePackages, String name, IProgressMonitor monitor)
 			throws DuplicateProjectNameException, CoreException, IOException {
-		final ResourceContentHandler packageElements = new ResourceContentHandler(ePackages);
+		final ResourceContentHandler packageElements = new ResourceContentHandler(ePackages, this.configuration);
+		final EclipseProjectCreator projectCreator = new EclipseProjectCreator(packageElements.getResourceSet());
+		runBatched(ResourcesPlugin.getWorkspace().getRoot().getProject(name), m -> {
+			this.project = projectCreator.createTGGProject(name, m);
+			create(projectCreator, packageElements, m);
+		}, IncrementalProjectBuilder.FULL_BUILD, monitor);
+	}
+
+	/**
+	 * Updates an existing TGG project, which has been created for previous
+	 * versions of the given meta models. Only the rules affected by changes of the
+	 * meta models are regenerated, rules for removed elements are deleted.
+	 *
+	 * @param ePackages The selected meta models
+	 * @param project   The existing TGG project
+	 * @param monitor   A progress monitor
+	 * @throws CoreException If the project cannot be accessed
+	 * @throws IOException If reading or writing a file failed
+	 */
+	public void updateTGGProject(Collection<EPackage> ePackages, IProject project, IProgressMonitor monitor)
+			throws CoreException, IOException {
+		final ResourceContentHandler packageElements = new ResourceContentHandler(ePackages, this.configuration);
 		final EclipseProjectCreator projectCreator = new EclipseProjectCreator(packageElements.getResourceSet());
-		this.project = projectCreator.createTGGProject(name, monitor);
-		create(projectCreator, packageElements);
+		this.project = projectCreator.openTGGProject(project);
+		try {
+			runBatched(project, m -> create(projectCreator, packageElements, m),
+					IncrementalProjectBuilder.INCREMENTAL_BUILD, monitor);
+		} catch (final DuplicateProjectNameException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Creates a new TGG project containing the files which have been generated
+	 * into a folder by
+	 * {@link TGGGenerator#generate(Collection, String, Path, Path, IProgressMonitor)}.
+	 * The attribute condition library copied into the folder is replaced by the
+	 * library of the project.
+	 *
+	 * @param output  The folder containing the generated files
+	 * @param name    The desired project name
+	 * @param monitor A progress monitor
+	 * @return The created project
+	 * @throws DuplicateProjectNameException If a project with this name already exists
+	 * @throws CoreException If the project couldn't be created
+	 * @throws IOException If reading a generated file failed
+	 */
+	public IProject importTGGProject(Path output, String name, IProgressMonitor monitor)
+			throws DuplicateProjectNameException, CoreException, IOException {
+		final Path library = output.resolve(DirectoryLocation.LIBRARY_FILE).getParent();
+		final List<Path> files;
+		try (Stream<Path> walk = Files.walk(output)) {
+			files = walk.filter(Files::isRegularFile).filter(file -> !file.startsWith(library))
+					.collect(Collectors.toList());
+		}
+		runBatched(ResourcesPlugin.getWorkspace().getRoot().getProject(name), m -> {
+			this.project = new EclipseProjectCreator(new XtextResourceSet()).createTGGProject(name, m);
+			for (final Path file : files) {
+				final String relative = output.relativize(file).toString().replace(File.separatorChar, '/');
+				final IFile target = this.project.getFile(relative);
+				createFolders(target.getParent(), m);
+				try (InputStream in = Files.newInputStream(file)) {
+					if (target.exists()) {
+						target.setContents(in, true, false, m);
+					} else {
+						target.create(in, true, m);
+					}
+				}
+			}
+		}, IncrementalProjectBuilder.FULL_BUILD, monitor);
+		return this.project;
+	}
+
+	/**
+	 * Checks if the project has been generated by this class and can be updated
+	 * incrementally
+	 *
+	 * @param project A project
+	 * @return true, iff the fingerprints of a previous generation are available
+	 */
+	public static boolean isUpdatable(IProject project) {
+		return project.isOpen()
+				&& Files.exists(new ProjectLocation(project).getPath(FingerprintHandler.FINGERPRINT_FILE));
 	}
 
 	/**
@@ -53,34 +164,102 @@ public class TGGProjectCreator {
 	 *
 	 * @param projectCreator The creator used to create the Eclipse project
 	 * @param packageElements The handler used to discover all required elements
-	 * @throws IOException If serializing a rule failed
+	 * @param monitor A progress monitor
+	 * @throws IOException If serializing a rule or deleting an outdated rule failed
 	 */
-	private void create(EclipseProjectCreator projectCreator, ResourceContentHandler packageElements) throws IOException  {
-		final Set<EClass> allEClasses = packageElements.getAllEClasses();
-		final XtextResourceSet resourceSet = packageElements.getResourceSet();
-		final CorrespondenceHandler correspondences = new CorrespondenceHandler(allEClasses);
-		final Schema schema = new SchemaCreator(this.project, resourceSet).createSchema(this.project.getName(),
-				packageElements.getAllEPackages(), packageElements.getAllEDataTypes(), new HashSet<>(correspondences.allCorrespondences()));
-		projectCreator.addMoreAttrConds(schema.getAttributeCondDefs());
-
-		final RuleCreator ruleCreator = new RuleCreator(packageElements, correspondences, projectCreator);
-		for (final EClass eClass : allEClasses) {
-			if (eClass.isAbstract() || eClass.isInterface()) {
-				continue;
-			}
-			ruleCreator.createRuleFile(eClass, schema);
-		}
+	private void create(EclipseProjectCreator projectCreator, ResourceContentHandler packageElements,
+			IProgressMonitor monitor) throws IOException {
+		new TGGGenerator(this.configuration).generate(packageElements, new ProjectLocation(this.project),
+				projectCreator.getAttributeConditions(), monitor);
+	}
 
-		final HashSet<EReference> seen = new HashSet<>();
-		for (final EReference eReference : packageElements.getAllEReferences()) {
-			if (!eReference.isContainer() && !eReference.isContainment() && !seen.contains(eReference)) {
-				ruleCreator.createLinkRule(eReference, schema);
-				seen.add(eReference);
-				final EReference opposite = eReference.getEOpposite();
-				if (opposite != null) {
-					seen.add(opposite);
+	/**
+	 * Runs the step as a single workspace operation. The resource change
+	 * notifications and the automatic build are deferred until the end of the
+	 * operation, so that the builders don't process half-written projects. If the
+	 * workspace doesn't build automatically, the project is built explicitly, so
+	 * that it is built exactly once in both cases. The operation holds the rules
+	 * for modifying and refreshing the project and, if the project doesn't exist
+	 * yet, for creating it. For a project the refresh and create rules are the
+	 * workspace root, so other workspace operations wait until the step is
+	 * finished.
+	 *
+	 * @param project   The project created or changed by the step
+	 * @param step      The step creating or changing the project
+	 * @param buildKind The kind of the explicit build, e.g.
+	 *                  {@link IncrementalProjectBuilder#FULL_BUILD}
+	 * @param monitor   A progress monitor
+	 * @throws DuplicateProjectNameException If the step tried to create an
+	 *                                       existing project
+	 * @throws CoreException If the workspace couldn't be changed or the build
+	 *                       failed
+	 * @throws IOException If reading or writing a file failed
+	 */
+	private void runBatched(IProject project, WorkspaceStep step, int buildKind, IProgressMonitor monitor)
+			throws DuplicateProjectNameException, CoreException, IOException {
+		final IWorkspace workspace = project.getWorkspace();
+		final IResourceRuleFactory rules = workspace.getRuleFactory();
+		ISchedulingRule rule = MultiRule.combine(rules.modifyRule(project), rules.refreshRule(project));
+		if (!project.exists()) {
+			rule = MultiRule.combine(rules.createRule(project), rule);
+		}
+		try {
+			workspace.run((IWorkspaceRunnable) m -> {
+				try {
+					step.run(m);
+				} catch (DuplicateProjectNameException | IOException e) {
+					throw new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID, e.getMessage(), e));
 				}
+				project.refreshLocal(IResource.DEPTH_INFINITE, m);
+			}, rule, IWorkspace.AVOID_UPDATE, monitor);
+		} catch (final CoreException e) {
+			final Throwable cause = e.getStatus().getException();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof DuplicateProjectNameException) {
+				throw (DuplicateProjectNameException) cause;
 			}
+			throw e;
 		}
+		if (!workspace.isAutoBuilding()) {
+			project.build(buildKind, monitor);
+		}
+	}
+
+	/**
+	 * Creates the container and all of its missing parents
+	 *
+	 * @param container A folder or project
+	 * @param monitor   A progress monitor
+	 * @throws CoreException If a folder couldn't be created
+	 */
+	private static void createFolders(IContainer container, IProgressMonitor monitor) throws CoreException {
+		if (container.exists()) {
+			return;
+		}
+		createFolders(container.getParent(), monitor);
+		((IFolder) container).create(true, true, monitor);
+	}
+
+	/**
+	 * A step of the generation, which is executed inside of a workspace operation
+	 *
+	 * @author speldszus
+	 *
+	 */
+	@FunctionalInterface
+	private interface WorkspaceStep {
+
+		/**
+		 * Executes the step
+		 *
+		 * @param monitor A progress monitor
+		 * @throws DuplicateProjectNameException If a project with this name already
+		 *                                       exists
+		 * @throws CoreException If the workspace couldn't be changed
+		 * @throws IOException If reading or writing a file failed
+		 */
+		void run(IProgressMonitor monitor) throws DuplicateProjectNameException, CoreException, IOException;
 	}
 }
@@ -1,24 +1,91 @@
 package de.peldszus.consistency.tgg.gen.create;
 
-import java.util.Optional;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EAttribute;
 import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.moflon.tgg.mosl.tgg.Adornment;
 import org.moflon.tgg.mosl.tgg.AttrCondDef;
 import org.moflon.tgg.mosl.tgg.AttributeExpression;
 import org.moflon.tgg.mosl.tgg.ObjectVariablePattern;
 import org.moflon.tgg.mosl.tgg.Param;
 import org.moflon.tgg.mosl.tgg.TggFactory;
+import org.moflon.tgg.mosl.tgg.TripleGraphGrammarFile;
 
 public class AttributeConditionCreator {
 
 	private final Set<AttrCondDef> attrCondDefs;
+	private final Map<EDataType, AttrCondDef> equalsConditions;
 
 	public AttributeConditionCreator(Set<AttrCondDef> set) {
 		this.attrCondDefs = set;
+		this.equalsConditions = new ConcurrentHashMap<>();
+		set.forEach(this::index);
+	}
+
+	/**
+	 * Loads the attribute condition definitions of an eMoflon attribute condition
+	 * library into the resource set
+	 *
+	 * @param resourceSet The resource set into which the library should be loaded
+	 * @param uri         The URI of the resource for the library
+	 * @param file        The file containing the library
+	 * @return A set containing the definitions
+	 * @throws IOException If reading the definitions from the file system failed
+	 */
+	public static Set<AttrCondDef> loadLibrary(ResourceSet resourceSet, URI uri, Path file) throws IOException {
+		final Resource attrCondResource = resourceSet.createResource(uri);
+		try (InputStream in = Files.newInputStream(file)) {
+			attrCondResource.load(in, Collections.emptyMap());
+		}
+		final EList<AttrCondDef> attributeCondDefs = ((TripleGraphGrammarFile) attrCondResource.getContents().get(0))
+				.getLibrary().getAttributeCondDefs();
+		return new LinkedHashSet<>(attributeCondDefs);
+	}
+
+	/**
+	 * Adds additional definitions and updates the index of equality conditions
+	 *
+	 * @param defs The definitions to add
+	 */
+	public void addAll(Collection<AttrCondDef> defs) {
+		for (final AttrCondDef def : defs) {
+			if (this.attrCondDefs.add(def)) {
+				index(def);
+			}
+		}
+	}
+
+	/**
+	 * Adds the definition to the index if it is an equality condition
+	 *
+	 * @param def The definition
+	 */
+	private void index(AttrCondDef def) {
+		if (!def.getName().toLowerCase().contains("eq")) {
+			return;
+		}
+		final EList<Param> params = def.getParams();
+		if (params.size() != 2) {
+			return;
+		}
+		final EDataType type = params.get(0).getType();
+		if (type != null && type.equals(params.get(1).getType())) {
+			this.equalsConditions.putIfAbsent(type, def);
+		}
 	}
 
 	public static AttrCondDef createEqualsContitionForType(EDataType eAttribute) {
@@ -60,21 +127,43 @@ public class AttributeConditionCreator {
 		return a;
 	}
 
+	/**
+	 * Checks if an equality condition for the data type is known, e.g. from the
+	 * eMoflon library
+	 *
+	 * @param eDataType The data type
+	 * @return true, iff there is a definition of the condition
+	 */
+	public boolean hasEqualsCondition(EDataType eDataType) {
+		return this.equalsConditions.containsKey(eDataType);
+	}
+
+	/**
+	 * Searches the equality condition for the data type in the index
+	 *
+	 * @param eDataType The data type
+	 * @return The definition of the condition or null if there is none
+	 */
 	public AttrCondDef findEqualsConditionForType(EDataType eDataType) {
-		final Optional<AttrCondDef> result = this.attrCondDefs.parallelStream().filter(def -> {
-			if (!def.getName().toLowerCase().contains("eq")) {
-				return false;
-			}
-			final EList<Param> params = def.getParams();
-			if (params.size() != 2) {
-				return false;
-			}
-			return params.get(0).getType().equals(eDataType) && params.get(1).getType().equals(eDataType);
-		}).findAny();
-		if (result.isPresent()) {
-			return result.get();
+		return this.equalsConditions.get(eDataType);
+	}
+
+	/**
+	 * Searches the equality condition for the type of the attribute
+	 *
+	 * @param eAttribute The attribute
+	 * @return The definition of the condition
+	 * @throws IllegalStateException If there is no definition for the type
+	 */
+	public AttrCondDef getEqualsConditionForAttribute(EAttribute eAttribute) {
+		final EDataType eDataType = eAttribute.getEAttributeType();
+		final AttrCondDef def = findEqualsConditionForType(eDataType);
+		if (def == null) {
+			throw new IllegalStateException("There is no equality attribute condition defined for the type \""
+					+ eDataType.getName() + "\" of the attribute \"" + eAttribute.getEContainingClass().getName()
+					+ "." + eAttribute.getName() + "\".");
 		}
-		return null;
+		return def;
 	}
 
 	/**
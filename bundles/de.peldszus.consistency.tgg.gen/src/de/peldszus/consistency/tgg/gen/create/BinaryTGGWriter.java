@@ -0,0 +1,147 @@
+package de.peldszus.consistency.tgg.gen.create;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil.Copier;
+import org.moflon.tgg.mosl.tgg.AttrCondDef;
+import org.moflon.tgg.mosl.tgg.Rule;
+import org.moflon.tgg.mosl.tgg.Schema;
+import org.moflon.tgg.mosl.tgg.TripleGraphGrammarFile;
+
+/**
+ * Writes all generated TGG files into a single binary EMF resource, so that
+ * tools consuming the model don't have to parse the textual rule files. The
+ * first file in the resource contains the schema, followed by the attribute
+ * condition libraries and the rule files. An index file maps each rule name to
+ * the position of its rule file in the contents of the resource.
+ *
+ * As the rule files might be unloaded after their textual serialization, a
+ * copy of each file is kept until the binary resource is saved. Hence, the
+ * memory usage grows with the size of the TGG and the writer is not used in the
+ * streaming mode. On updates, all rule files are created again, as the binary
+ * resource has to contain all of them.
+ *
+ * @author speldszus
+ *
+ */
+public class BinaryTGGWriter {
+
+	/**
+	 * The folder of the binary resource relative to the root of the location
+	 */
+	public static final String MODEL_FOLDER = "model/";
+
+	/**
+	 * The file extension of the binary resource
+	 */
+	public static final String BINARY_EXTENSION = ".tgg.bin";
+
+	/**
+	 * The file extension of the index of the rule names
+	 */
+	public static final String INDEX_EXTENSION = ".tgg.index";
+
+	private final Path binaryFile;
+	private final Path indexFile;
+	private final Resource resource;
+	private final Map<EObject, EObject> shared;
+	private final Map<String, Integer> index;
+
+	/**
+	 * Initializes the writer with copies of the schema and the attribute
+	 * condition libraries
+	 *
+	 * @param location The location of the generated TGG
+	 * @param schema   The schema
+	 * @param defs     The attribute condition definitions used by the rules
+	 */
+	public BinaryTGGWriter(TGGLocation location, Schema schema, Collection<AttrCondDef> defs) {
+		this.binaryFile = location.getPath(MODEL_FOLDER + location.getName() + BINARY_EXTENSION);
+		this.indexFile = location.getPath(MODEL_FOLDER + location.getName() + INDEX_EXTENSION);
+		this.resource = new BinaryResourceImpl(URI.createFileURI(this.binaryFile.toAbsolutePath().toString()));
+		this.index = new LinkedHashMap<>();
+
+		final Copier copier = new Copier();
+		final TripleGraphGrammarFile schemaFile = (TripleGraphGrammarFile) schema.eContainer();
+		this.resource.getContents().add(copier.copy(schemaFile));
+		for (final AttrCondDef def : defs) {
+			final EObject file = def.eContainer().eContainer();
+			if (!copier.containsKey(file)) {
+				this.resource.getContents().add(copier.copy(file));
+			}
+		}
+		copier.copyReferences();
+		this.shared = copier;
+	}
+
+	/**
+	 * Adds a copy of the rule file to the binary resource. References to the
+	 * schema and the libraries are redirected to their copies.
+	 *
+	 * @param ruleFile A generated rule file
+	 */
+	public void add(TripleGraphGrammarFile ruleFile) {
+		final Copier copier = new Copier() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public EObject get(Object key) {
+				final EObject copy = super.get(key);
+				if (copy == null) {
+					return BinaryTGGWriter.this.shared.get(key);
+				}
+				return copy;
+			}
+		};
+		final EObject copy = copier.copy(ruleFile);
+		copier.copyReferences();
+		final int position = this.resource.getContents().size();
+		this.resource.getContents().add(copy);
+		for (final Rule rule : ruleFile.getRules()) {
+			this.index.put(rule.getName(), position);
+		}
+	}
+
+	/**
+	 * Saves the binary resource and the index of the rule names
+	 *
+	 * @throws IOException If a file couldn't be written
+	 */
+	public void save() throws IOException {
+		Files.createDirectories(this.binaryFile.getParent());
+		try (OutputStream out = Files.newOutputStream(this.binaryFile)) {
+			this.resource.save(out, Collections.emptyMap());
+		}
+		try (BufferedWriter writer = Files.newBufferedWriter(this.indexFile, StandardCharsets.UTF_8)) {
+			for (final Entry<String, Integer> entry : this.index.entrySet()) {
+				writer.write(entry.getKey());
+				writer.write('\t');
+				writer.write(Integer.toString(entry.getValue()));
+				writer.newLine();
+			}
+		}
+	}
+
+	/**
+	 * The binary resource containing the copies of all added files
+	 *
+	 * @return the resource
+	 */
+	public Resource getResource() {
+		return this.resource;
+	}
+}
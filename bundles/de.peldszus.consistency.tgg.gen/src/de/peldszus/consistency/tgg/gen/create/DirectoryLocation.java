@@ -0,0 +1,87 @@
+package de.peldszus.consistency.tgg.gen.create;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.emf.common.util.URI;
+import org.emoflon.ibex.tgg.ide.admin.IbexTGGNature;
+
+/**
+ * Generates the files of a TGG into a folder of the file system without
+ * requiring an Eclipse workspace. The folder has the same layout as an eMoflon
+ * TGG project.
+ *
+ * @author speldszus
+ *
+ */
+public class DirectoryLocation implements TGGLocation {
+
+	/**
+	 * The location of the copied attribute condition library, which is not part
+	 * of the project layout
+	 */
+	public static final String LIBRARY_FILE = "lib/AttrCondDefLibrary.tgg";
+
+	private final Path root;
+	private final String name;
+
+	/**
+	 * Creates a new location for the folder
+	 *
+	 * @param root The folder into which the files should be written
+	 * @param name The name of the TGG
+	 */
+	public DirectoryLocation(Path root, String name) {
+		this.root = root;
+		this.name = name;
+	}
+
+	@Override
+	public String getName() {
+		return this.name;
+	}
+
+	@Override
+	public URI getSchemaURI() {
+		return URI.createFileURI(getSchemaFile().getAbsolutePath());
+	}
+
+	@Override
+	public File getSchemaFile() {
+		return getPath(IbexTGGNature.SCHEMA_FILE).toFile();
+	}
+
+	@Override
+	public URI getRuleURI(String name) {
+		return URI.createFileURI(getRuleFile(name).toAbsolutePath().toString());
+	}
+
+	@Override
+	public void deleteRuleFile(String name) throws IOException {
+		Files.deleteIfExists(getRuleFile(name));
+	}
+
+	@Override
+	public Path getPath(String relativePath) {
+		return this.root.resolve(relativePath);
+	}
+
+	/**
+	 * @param name The name of a rule file without the file extension
+	 * @return The file in the rules folder
+	 */
+	private Path getRuleFile(String name) {
+		return getPath(RULES_FOLDER + name + ".tgg");
+	}
+
+	/**
+	 * The folder into which the files are generated
+	 *
+	 * @return the folder
+	 */
+	public Path getRoot() {
+		return this.root;
+	}
+}
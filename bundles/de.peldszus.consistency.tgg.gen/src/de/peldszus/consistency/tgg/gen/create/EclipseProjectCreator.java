@@ -3,23 +3,22 @@
  */
 package de.peldszus.consistency.tgg.gen.create;
 
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IProjectDescription;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
-import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.common.util.URI;
-import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.xtext.ui.XtextProjectHelper;
 import org.emoflon.ibex.tgg.ide.admin.IbexTGGNature;
@@ -28,7 +27,6 @@ import org.gravity.eclipse.io.ExtensionFileVisitor;
 import org.gravity.eclipse.util.EclipseProjectUtil;
 import org.moflon.tgg.mosl.defaults.AttrCondDefLibraryProvider;
 import org.moflon.tgg.mosl.tgg.AttrCondDef;
-import org.moflon.tgg.mosl.tgg.TripleGraphGrammarFile;
 
 import de.peldszus.consistency.tgg.gen.Activator;
 
@@ -42,7 +40,7 @@ public class EclipseProjectCreator {
 
 	private IProject project;
 	private final ResourceSet resourceSet;
-	private Set<AttrCondDef> attrConds;
+	private AttributeConditionCreator attrConds;
 
 	/**
 	 * Initializes the project creator
@@ -66,12 +64,25 @@ public class EclipseProjectCreator {
 	public IProject createTGGProject(String name, IProgressMonitor monitor)
 			throws DuplicateProjectNameException, CoreException, IOException {
 		this.project = EclipseProjectUtil.createProject(name, monitor);
-		EclipseProjectUtil.addNature(this.project, IbexTGGNature.IBEX_TGG_NATURE_ID, monitor);
-		EclipseProjectUtil.addNature(this.project, IbexTGGNature.PLUGIN_NATURE_ID, monitor);
-		EclipseProjectUtil.addNature(this.project, XtextProjectHelper.NATURE_ID, monitor);
+		addNatures(monitor, IbexTGGNature.IBEX_TGG_NATURE_ID, IbexTGGNature.PLUGIN_NATURE_ID,
+				XtextProjectHelper.NATURE_ID);
 		AttrCondDefLibraryProvider.syncAttrCondDefLibrary(this.project);
 
-		this.attrConds = getDefaultAttributeConditions();
+		this.attrConds = new AttributeConditionCreator(getDefaultAttributeConditions());
+		return this.project;
+	}
+
+	/**
+	 * Uses an existing TGG project, which has been created by this class before
+	 *
+	 * @param project The existing project
+	 * @return The project
+	 * @throws CoreException If reading the attribute conditions failed
+	 * @throws IOException If reading the attribute conditions failed
+	 */
+	public IProject openTGGProject(IProject project) throws CoreException, IOException {
+		this.project = project;
+		this.attrConds = new AttributeConditionCreator(getDefaultAttributeConditions());
 		return this.project;
 	}
 
@@ -81,6 +92,16 @@ public class EclipseProjectCreator {
 	 * @return a set containing the definitions
 	 */
 	public Set<AttrCondDef> getAttrConds() {
+		return this.attrConds.getAttrs();
+	}
+
+	/**
+	 * The creator managing the attribute condition definitions and indexing the
+	 * equality conditions
+	 *
+	 * @return the attribute condition creator
+	 */
+	public AttributeConditionCreator getAttributeConditions() {
 		return this.attrConds;
 	}
 
@@ -93,6 +114,23 @@ public class EclipseProjectCreator {
 		return this.project;
 	}
 
+	/**
+	 * Adds the natures to the project with a single update of the project
+	 * description, so that the builders are configured only once
+	 *
+	 * @param monitor A progress monitor
+	 * @param natureIds The IDs of the natures
+	 * @throws CoreException If the description of the project couldn't be changed
+	 */
+	private void addNatures(IProgressMonitor monitor, String... natureIds) throws CoreException {
+		final IProjectDescription description = this.project.getDescription();
+		final Set<String> natures = new LinkedHashSet<>(Arrays.asList(description.getNatureIds()));
+		if (natures.addAll(Arrays.asList(natureIds))) {
+			description.setNatureIds(natures.toArray(new String[natures.size()]));
+			this.project.setDescription(description, monitor);
+		}
+	}
+
 	/**
 	 * @return A set containing the default eMoflon attribute condition definitions
 	 * @throws CoreException If searing the project failed
@@ -102,7 +140,10 @@ public class EclipseProjectCreator {
 			throws CoreException, IOException {
 		final ExtensionFileVisitor visitor = new ExtensionFileVisitor("tgg");
 		this.project.accept(visitor);
-		final List<Path> files = visitor.getFiles();
+		final Path schemaFile = this.project.getFile(IbexTGGNature.SCHEMA_FILE).getLocation().toFile().toPath();
+		final Path rulesFolder = schemaFile.resolveSibling("rules");
+		final List<Path> files = visitor.getFiles().stream()
+				.filter(file -> !file.equals(schemaFile) && !file.startsWith(rulesFolder)).collect(Collectors.toList());
 		if (files.size() != 1) {
 			throw new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID,
 					"Couldn't find eMoflon attribure constraint specifications!"));
@@ -110,12 +151,8 @@ public class EclipseProjectCreator {
 		final Path path = files.get(0);
 		final Path workspaceRelativePath = this.project.getWorkspace().getRoot().getLocation().toFile().toPath()
 				.relativize(path);
-		final Resource attrCondResource = this.resourceSet
-				.createResource(URI.createPlatformResourceURI(workspaceRelativePath.toString(), true));
-		attrCondResource.load(new FileInputStream(path.toFile()), Collections.emptyMap());
-		final EList<AttrCondDef> attributeCondDefs = ((TripleGraphGrammarFile) attrCondResource.getContents().get(0))
-				.getLibrary().getAttributeCondDefs();
-		return new HashSet<>(attributeCondDefs);
+		return AttributeConditionCreator.loadLibrary(this.resourceSet,
+				URI.createPlatformResourceURI(workspaceRelativePath.toString(), true), path);
 	}
 
 	/**
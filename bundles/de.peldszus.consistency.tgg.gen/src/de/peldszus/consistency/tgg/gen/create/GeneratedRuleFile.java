@@ -0,0 +1,44 @@
+package de.peldszus.consistency.tgg.gen.create;
+
+import org.moflon.tgg.mosl.tgg.TripleGraphGrammarFile;
+
+/**
+ * A generated TGG file containing rules together with the name of the file
+ *
+ * @author speldszus
+ *
+ */
+public class GeneratedRuleFile {
+
+	private final String name;
+	private final TripleGraphGrammarFile file;
+
+	/**
+	 * Creates a new container for a generated rule file
+	 *
+	 * @param name The name of the file without the file extension
+	 * @param file The TGG file containing the rules
+	 */
+	public GeneratedRuleFile(String name, TripleGraphGrammarFile file) {
+		this.name = name;
+		this.file = file;
+	}
+
+	/**
+	 * The name of the file without the file extension
+	 *
+	 * @return the name
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * The TGG file containing the rules
+	 *
+	 * @return the file
+	 */
+	public TripleGraphGrammarFile getFile() {
+		return this.file;
+	}
+}
@@ -0,0 +1,86 @@
+package de.peldszus.consistency.tgg.gen.create;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.emf.common.util.URI;
+import org.emoflon.ibex.tgg.ide.admin.IbexTGGNature;
+
+/**
+ * Generates the files of a TGG into an Eclipse project of the workspace
+ *
+ * @author speldszus
+ *
+ */
+public class ProjectLocation implements TGGLocation {
+
+	private final IProject project;
+
+	/**
+	 * Creates a new location for the project
+	 *
+	 * @param project The TGG project
+	 */
+	public ProjectLocation(IProject project) {
+		this.project = project;
+	}
+
+	@Override
+	public String getName() {
+		return this.project.getName();
+	}
+
+	@Override
+	public URI getSchemaURI() {
+		return URI.createPlatformResourceURI(this.project.getName() + File.separator + IbexTGGNature.SCHEMA_FILE,
+				true);
+	}
+
+	@Override
+	public File getSchemaFile() {
+		return this.project.getFile(IbexTGGNature.SCHEMA_FILE).getLocation().toFile();
+	}
+
+	@Override
+	public URI getRuleURI(String name) {
+		return URI.createPlatformResourceURI(getRuleFile(name).getFullPath().toString(), true);
+	}
+
+	@Override
+	public void deleteRuleFile(String name) throws IOException {
+		final IFile tggFile = getRuleFile(name);
+		if (tggFile.exists()) {
+			try {
+				tggFile.delete(true, null);
+			} catch (final CoreException e) {
+				throw new IOException("Couldn't delete the rule file: " + tggFile.getName(), e);
+			}
+		}
+	}
+
+	@Override
+	public Path getPath(String relativePath) {
+		return this.project.getLocation().toFile().toPath().resolve(relativePath);
+	}
+
+	/**
+	 * @param name The name of a rule file without the file extension
+	 * @return The file in the rules folder of the project
+	 */
+	private IFile getRuleFile(String name) {
+		return this.project.getFile(RULES_FOLDER + name + ".tgg");
+	}
+
+	/**
+	 * The project into which the files are generated
+	 *
+	 * @return the project
+	 */
+	public IProject getProject() {
+		return this.project;
+	}
+}
@@ -1,23 +1,34 @@
 package de.peldszus.consistency.tgg.gen.create;
 
-import java.io.File;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
-import org.eclipse.core.resources.IProject;
-import org.eclipse.core.runtime.IPath;
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EReference;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
-import org.emoflon.ibex.tgg.ide.admin.IbexTGGNature;
+import org.eclipse.emf.ecore.resource.URIConverter;
 import org.moflon.tgg.mosl.tgg.AttrCond;
 import org.moflon.tgg.mosl.tgg.AttrCondDef;
 import org.moflon.tgg.mosl.tgg.CorrType;
@@ -32,7 +43,14 @@ import org.moflon.tgg.mosl.tgg.TggFactory;
 import org.moflon.tgg.mosl.tgg.TripleGraphGrammarFile;
 import org.moflon.tgg.mosl.tgg.Using;
 
+import de.peldszus.consistency.tgg.gen.EmissionMode;
+import de.peldszus.consistency.tgg.gen.FeatureFilter;
+import de.peldszus.consistency.tgg.gen.GenerationMetrics;
+import de.peldszus.consistency.tgg.gen.GenerationMetrics.Counter;
+import de.peldszus.consistency.tgg.gen.GenerationMetrics.Phase;
+import de.peldszus.consistency.tgg.gen.create.RuleTemplate.Role;
 import de.peldszus.consistency.tgg.gen.handle.ConainerHandler;
+import de.peldszus.consistency.tgg.gen.handle.ContentManifest;
 import de.peldszus.consistency.tgg.gen.handle.CorrespondenceHandler;
 import de.peldszus.consistency.tgg.gen.handle.ResourceContentHandler;
 
@@ -46,17 +64,23 @@ public class RuleCreator {
 
 	private final AttributeConditionCreator attrConds;
 	private final ResourceSet resourceSet;
-	private final IProject project;
+	private final TGGLocation location;
 	private final ConainerHandler containers;
 	private final CorrespondenceHandler correspondences;
+	private final EmissionMode emissionMode;
+	private final GenerationMetrics metrics;
+	private final List<TripleGraphGrammarFile> pending;
+	private final Map<EClass, RuleTemplate> templates;
+	private BinaryTGGWriter binaryWriter;
+	private TGGTextEmitter textEmitter;
+	private ContentManifest contentManifest;
+	private FeatureFilter featureFilter;
 
 	/**
-	 * Initializes the class with information needed for the creation of rules
+	 * Initializes the class with information needed for the creation of rules,
+	 * each rule file is saved directly after its creation
 	 *
-	 * @param resourceSet     The resource set containing the Schema and into which
-	 *                        the rules should be inserted
-	 * @param containers      The handler providing information about containment
-	 *                        edges
+	 * @param packageElements The handler providing the elements of the meta models
 	 * @param correspondences The handler providing information about correspondence
 	 *                        types in the schema
 	 * @param projectCreator  The creator used for creating the Eclipse project into
@@ -64,12 +88,52 @@ public class RuleCreator {
 	 */
 	public RuleCreator(ResourceContentHandler packageElements, CorrespondenceHandler correspondences,
 			EclipseProjectCreator projectCreator) {
-		this.attrConds = new AttributeConditionCreator(projectCreator.getAttrConds());
+		this(packageElements, correspondences, projectCreator, EmissionMode.PER_FILE);
+	}
+
+	/**
+	 * Initializes the class with information needed for the creation of rules
+	 *
+	 * @param packageElements The handler providing the elements of the meta models
+	 * @param correspondences The handler providing information about correspondence
+	 *                        types in the schema
+	 * @param projectCreator  The creator used for creating the Eclipse project into
+	 *                        which the rules should be inserted
+	 * @param emissionMode    The mode in which the created rule files are saved
+	 */
+	public RuleCreator(ResourceContentHandler packageElements, CorrespondenceHandler correspondences,
+			EclipseProjectCreator projectCreator, EmissionMode emissionMode) {
+		this(packageElements, correspondences, projectCreator.getAttributeConditions(),
+				new ProjectLocation(projectCreator.getProject()), emissionMode, new GenerationMetrics());
+	}
+
+	/**
+	 * Initializes the class with information needed for the creation of rules
+	 * independent of an Eclipse project
+	 *
+	 * @param packageElements The handler providing the elements of the meta models
+	 * @param correspondences The handler providing information about correspondence
+	 *                        types in the schema
+	 * @param attrConds       The available attribute condition definitions
+	 * @param location        The location into which the rules should be written
+	 * @param emissionMode    The mode in which the created rule files are saved
+	 * @param metrics         The metrics into which durations and counters are
+	 *                        reported
+	 */
+	public RuleCreator(ResourceContentHandler packageElements, CorrespondenceHandler correspondences,
+			AttributeConditionCreator attrConds, TGGLocation location, EmissionMode emissionMode,
+			GenerationMetrics metrics) {
+		this.attrConds = attrConds;
 		this.resourceSet = packageElements.getResourceSet();
 		this.correspondences = correspondences;
-		this.project = projectCreator.getProject();
+		this.location = location;
 		this.containers = new ConainerHandler(packageElements.getAllEClasses());
-
+		this.emissionMode = emissionMode;
+		this.metrics = metrics;
+		this.pending = new LinkedList<>();
+		this.templates = new ConcurrentHashMap<>();
+		this.featureFilter = new FeatureFilter();
+		this.textEmitter = new TGGTextEmitter();
 	}
 
 	/**
@@ -87,83 +151,326 @@ public class RuleCreator {
 		rule.setSchema(schema);
 		ruleFile.getRules().add(rule);
 
-		final CorrVariablePattern corr = createMapping(createType, rule, true, "");
+		final CorrVariablePattern corr = createMapping(createType, rule, Role.CREATE);
 
 		final ObjectVariablePattern source = corr.getSource();
 		final ObjectVariablePattern target = corr.getTarget();
-		final List<AttrCond> attrConditions = createType.getEAllAttributes().parallelStream().map(eAttribute -> {
-			final AttrCondDef attrCond = this.attrConds.findEqualsConditionForType(eAttribute.getEAttributeType());
+		final EList<AttrCond> attrConditions = rule.getAttrConditions();
+		for (final EAttribute eAttribute : this.featureFilter.filter(createType.getEAllAttributes())) {
+			final AttrCondDef attrCond = this.attrConds.getEqualsConditionForAttribute(eAttribute);
 			final AttrCond condition = TggFactory.eINSTANCE.createAttrCond();
 			final EList<ParamValue> parameters = condition.getValues();
 			parameters.add(this.attrConds.createAttributeExpression(source, eAttribute));
 			parameters.add(this.attrConds.createAttributeExpression(target, eAttribute));
 
 			condition.setName(attrCond);
-			return condition;
-		}).collect(Collectors.toList());
-		rule.getAttrConditions().addAll(attrConditions);
+			attrConditions.add(condition);
+		}
 		return rule;
 	}
 
 	/**
-	 *
-	 * Creates a new rule for translating the given EReference
+	 * Creates a new rule translating the given EReference in the rule file
 	 *
 	 * @param eReference A EReference
 	 * @param schema     The schema containing the correspondence types
-	 * @throws IOException If the rule couldn't be stored
+	 * @param ruleFile   The rule file into which the rule should be inserted
 	 */
-	public void createLinkRule(EReference eReference, Schema schema) throws IOException {
+	private void addLinkRule(EReference eReference, Schema schema, TripleGraphGrammarFile ruleFile) {
 		final EClass trgType = (EClass) eReference.getEType();
 		final EClass srcType = eReference.getEContainingClass();
-		final String ruleName = srcType.getName() + "LinkTo" + trgType.getName() + "With" + eReference.getName();
-		final TripleGraphGrammarFile ruleFile = createRuleFile(ruleName, schema);
 		final Rule rule = TggFactory.eINSTANCE.createRule();
-		rule.setName(ruleName);
+		rule.setName(getLinkRuleName(eReference));
 		rule.setSchema(schema);
 		ruleFile.getRules().add(rule);
 
-		final CorrVariablePattern src = createMapping(srcType, rule, false, "Source");
-		final CorrVariablePattern trg = createMapping(trgType, rule, false, "Target");
+		final CorrVariablePattern src = createMapping(srcType, rule, Role.SOURCE);
+		final CorrVariablePattern trg = createMapping(trgType, rule, Role.TARGET);
 		createNewLink(src.getSource(), trg.getSource(), eReference);
 		createNewLink(src.getTarget(), trg.getTarget(), eReference);
+	}
 
-		save(ruleFile);
+	/**
+	 * Creates a new rule file containing the rules of all EClasses and EReferences
+	 * of the group without adding it to a resource. This method can be called
+	 * concurrently.
+	 *
+	 * @param group  The group of EClasses and EReferences
+	 * @param schema The schema containing the correspondence types
+	 * @return The created rule file
+	 */
+	GeneratedRuleFile buildGroupFile(RuleGroup group, Schema schema) {
+		final TripleGraphGrammarFile ruleFile = createRuleFile(schema);
+		for (final EClass eClass : group.getEClasses()) {
+			final long start = System.nanoTime();
+			addCreateRules(eClass, schema, ruleFile);
+			this.metrics.record(eClass, start);
+		}
+		for (final EReference eReference : group.getEReferences()) {
+			addLinkRule(eReference, schema, ruleFile);
+		}
+		return new GeneratedRuleFile(group.getName(), ruleFile);
 	}
 
 	/**
-	 * @param schema
-	 * @param ruleFile
-	 * @throws IOException
+	 * Creates a rule file for each of the given groups. The rules are created
+	 * concurrently and the files are added to the resource set and saved in the
+	 * order of the given groups, so that the result is the same as for a serial
+	 * creation. In the streaming mode only as many rule files as worker threads
+	 * are created before they are saved and unloaded.
+	 *
+	 * @param groups      The groups of EClasses and EReferences for which rules
+	 *                    should be created
+	 * @param schema      The schema containing the correspondence types
+	 * @param parallelism The number of worker threads
+	 * @throws IOException If a rule couldn't be stored
+	 */
+	public void createRuleFiles(List<RuleGroup> groups, Schema schema, int parallelism) throws IOException {
+		// EMF computes the inherited features lazily, they are initialized before the concurrent access
+		for (final RuleGroup group : groups) {
+			for (final EClass eClass : group.getEClasses()) {
+				eClass.getEAllSuperTypes();
+				eClass.getEAllAttributes();
+			}
+		}
+		final List<Supplier<GeneratedRuleFile>> tasks = new ArrayList<>(groups.size());
+		for (final RuleGroup group : groups) {
+			tasks.add(() -> buildGroupFile(group, schema));
+		}
+		final ForkJoinPool pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+		try {
+			final int chunk = this.emissionMode == EmissionMode.STREAMING ? Math.max(1, parallelism) : tasks.size();
+			for (int i = 0; i < tasks.size(); i += chunk) {
+				final long start = System.nanoTime();
+				final List<GeneratedRuleFile> ruleFiles = build(tasks.subList(i, Math.min(i + chunk, tasks.size())),
+						pool);
+				this.metrics.record(Phase.RULE_CREATION, start);
+				for (final GeneratedRuleFile ruleFile : ruleFiles) {
+					emit(attach(ruleFile));
+				}
+			}
+		} finally {
+			if (pool != null) {
+				pool.shutdown();
+			}
+		}
+		saveAll();
+	}
+
+	/**
+	 * Executes the tasks on the fork join pool
+	 *
+	 * @param tasks The tasks creating rule files
+	 * @param pool  The pool or null if the tasks should be executed in the
+	 *              calling thread
+	 * @return The created rule files in the order of the tasks
+	 * @throws IOException If the creation of a rule file failed
+	 */
+	private static List<GeneratedRuleFile> build(List<Supplier<GeneratedRuleFile>> tasks, ForkJoinPool pool)
+			throws IOException {
+		if (pool == null) {
+			return tasks.stream().map(Supplier::get).collect(Collectors.toList());
+		}
+		try {
+			return pool.submit(() -> tasks.parallelStream().map(Supplier::get).collect(Collectors.toList())).get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("The creation of the rules has been interrupted.", e);
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new IOException("The creation of the rules failed.", cause);
+		}
+	}
+
+	/**
+	 * Saves the rule file or postpones saving it, depending on the emission mode
+	 *
+	 * @param ruleFile The created rule file
+	 * @throws IOException If the rule file couldn't be stored
+	 */
+	private void emit(final TripleGraphGrammarFile ruleFile) throws IOException {
+		if (this.emissionMode == EmissionMode.BATCHED) {
+			this.pending.add(ruleFile);
+		} else if (this.emissionMode == EmissionMode.STREAMING) {
+			final Resource ruleResource = ruleFile.eResource();
+			try {
+				save(Collections.singletonList(ruleFile));
+			} finally {
+				ruleResource.unload();
+				this.resourceSet.getResources().remove(ruleResource);
+			}
+		} else {
+			save(Collections.singletonList(ruleFile));
+		}
+	}
+
+	/**
+	 * Saves all rule files whose serialization has been postponed in a single pass
+	 *
+	 * @throws IOException If a rule file couldn't be stored
+	 */
+	public void saveAll() throws IOException {
+		try {
+			save(this.pending);
+		} finally {
+			this.pending.clear();
+		}
+	}
+
+	/**
+	 * Serializes the rule files. Files supported by the text emitter, which are all
+	 * files created by this class, are written directly without modifying the
+	 * resource set. Only for resolving the cross references of the other files the
+	 * files containing the schema and the attribute condition definitions are moved
+	 * into the rule resources.
+	 *
+	 * @param ruleFiles The rule files to save
+	 * @throws IOException If a rule file couldn't be stored
+	 */
+	private void save(final List<TripleGraphGrammarFile> ruleFiles) throws IOException {
+		if (ruleFiles.isEmpty()) {
+			return;
+		}
+		final long start = System.nanoTime();
+		final List<TripleGraphGrammarFile> serialized = new ArrayList<>(ruleFiles.size());
+		try {
+			for (final TripleGraphGrammarFile ruleFile : ruleFiles) {
+				if (this.textEmitter != null && this.textEmitter.isSupported(ruleFile)) {
+					final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+					try (Writer writer = new OutputStreamWriter(bytes, StandardCharsets.UTF_8)) {
+						this.textEmitter.write(ruleFile, writer);
+					}
+					write(ruleFile.eResource(), bytes);
+				} else {
+					serialized.add(ruleFile);
+				}
+			}
+			serialize(serialized);
+		} finally {
+			this.metrics.record(Phase.RULE_SAVING, start);
+		}
+		if (this.binaryWriter != null) {
+			for (final TripleGraphGrammarFile ruleFile : ruleFiles) {
+				this.binaryWriter.add(ruleFile);
+			}
+		}
+	}
+
+	/**
+	 * Serializes the rule files with Xtext
+	 *
+	 * @param ruleFiles The rule files to serialize
+	 * @throws IOException If a rule file couldn't be stored
+	 */
+	private void serialize(final List<TripleGraphGrammarFile> ruleFiles) throws IOException {
+		if (ruleFiles.isEmpty()) {
+			return;
+		}
+		final Map<TripleGraphGrammarFile, Resource> shared = new LinkedHashMap<>();
+		ruleFiles.stream().flatMap(ruleFile -> ruleFile.getRules().stream()).map(Rule::getSchema)
+				.filter(Objects::nonNull).map(schema -> (TripleGraphGrammarFile) schema.eContainer())
+				.forEach(file -> shared.putIfAbsent(file, file.eResource()));
+		this.attrConds.getAttrs().stream().map(def -> (TripleGraphGrammarFile) def.eContainer().eContainer())
+				.forEach(file -> shared.putIfAbsent(file, file.eResource()));
+		try {
+			for (final TripleGraphGrammarFile ruleFile : ruleFiles) {
+				final Resource ruleResource = ruleFile.eResource();
+				ruleResource.getContents().addAll(shared.keySet());
+				final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				ruleResource.save(bytes, Collections.emptyMap());
+				write(ruleResource, bytes);
+			}
+		} finally {
+			for (final Entry<TripleGraphGrammarFile, Resource> entry : shared.entrySet()) {
+				entry.getValue().getContents().add(entry.getKey());
+			}
+		}
+	}
+
+	/**
+	 * Writes the serialized rule file to the URI of its resource. If the content
+	 * manifest shows that the existing file has the same content, the file is not
+	 * written again.
+	 *
+	 * @param ruleResource The resource of the rule file
+	 * @param bytes        The serialized rule file
+	 * @throws IOException If the file couldn't be written
+	 */
+	private void write(Resource ruleResource, ByteArrayOutputStream bytes) throws IOException {
+		final URI uri = ruleResource.getURI();
+		final URIConverter converter = this.resourceSet.getURIConverter();
+		if (this.contentManifest != null && !this.contentManifest.update(getContentKey(uri), bytes.toByteArray())
+				&& converter.exists(uri, null)) {
+			this.metrics.increment(Counter.UNCHANGED_FILES, 1);
+			return;
+		}
+		try (OutputStream out = converter.createOutputStream(uri)) {
+			bytes.writeTo(out);
+		}
+		this.metrics.increment(Counter.BYTES_WRITTEN, bytes.size());
+	}
+
+	/**
+	 * Sets the manifest of the file contents, which is used to skip writing
+	 * unchanged rule files
+	 *
+	 * @param contentManifest The manifest or null if all files should be written
 	 */
-	private void save(final TripleGraphGrammarFile ruleFile) throws IOException {
-		final Resource ruleResource = ruleFile.eResource();
-		final Map<TripleGraphGrammarFile, Resource> schemaMap = ruleFile.getRules().parallelStream()
-				.map(rule -> rule.getSchema()).filter(Objects::nonNull)
-				.map(schema -> (TripleGraphGrammarFile) schema.eContainer()).distinct()
-				.collect(Collectors.toMap(file -> file, file -> file.eResource()));
-		ruleResource.getContents().addAll(schemaMap.keySet());
-
-		final Map<TripleGraphGrammarFile, Resource> attrMap = this.attrConds.getAttrs().parallelStream()
-				.map(def -> (TripleGraphGrammarFile) def.eContainer().eContainer()).distinct()
-				.collect(Collectors.toMap(file -> file, file -> file.eResource()));
-		ruleResource.getContents().addAll(attrMap.keySet());
-
-		ruleResource.save(Collections.emptyMap());
-		schemaMap.entrySet().parallelStream().forEach(entry -> entry.getValue().getContents().add(entry.getKey()));
-		attrMap.entrySet().parallelStream().forEach(entry -> entry.getValue().getContents().add(entry.getKey()));
+	public void setContentManifest(ContentManifest contentManifest) {
+		this.contentManifest = contentManifest;
 	}
 
 	/**
+	 * Sets the filter selecting the attributes for which attribute conditions are
+	 * created
 	 *
-	 * @param createClass
-	 * @param schema
-	 * @throws IOException
+	 * @param featureFilter The feature filter
 	 */
-	public void createRuleFile(EClass createClass, Schema schema) throws IOException {
-		final String createClassName = createClass.getName();
-		final TripleGraphGrammarFile ruleFile = createRuleFile(createClassName, schema);
+	public void setFeatureFilter(FeatureFilter featureFilter) {
+		this.featureFilter = featureFilter;
+	}
 
+	/**
+	 * @param uri The URI of a rule file
+	 * @return The key of the file in the content manifest
+	 */
+	private static String getContentKey(URI uri) {
+		return TGGLocation.RULES_FOLDER + uri.lastSegment();
+	}
+
+	/**
+	 * Sets the emitter writing the supported rule files without the Xtext
+	 * serializer, by default a {@link TGGTextEmitter} is used
+	 *
+	 * @param textEmitter The emitter or null if all files should be serialized by
+	 *                    Xtext
+	 */
+	public void setTextEmitter(TGGTextEmitter textEmitter) {
+		this.textEmitter = textEmitter;
+	}
+
+	/**
+	 * Sets a writer to which all saved rule files are added
+	 *
+	 * @param binaryWriter The writer of the binary resource or null
+	 */
+	public void setBinaryWriter(BinaryTGGWriter binaryWriter) {
+		this.binaryWriter = binaryWriter;
+	}
+
+	/**
+	 * Creates the rules translating the given EClass in the rule file, one for
+	 * each containment reference which can contain the class
+	 *
+	 * @param createClass The EClass
+	 * @param schema      The schema containing the correspondence types
+	 * @param ruleFile    The rule file into which the rules should be inserted
+	 */
+	private void addCreateRules(EClass createClass, Schema schema, TripleGraphGrammarFile ruleFile) {
+		final String createClassName = getRuleFileName(createClass);
 		final Set<EReference> references = this.containers.getAllContainerReferences(createClass);
 		if (references.isEmpty()) {
 			createCreateRule(createClassName, schema, ruleFile, createClass);
@@ -177,32 +484,80 @@ public class RuleCreator {
 					ruleName = createClassName + "_" + containment.getName() + "_" + eContainer.getName();
 				}
 				final Rule rule = createCreateRule(ruleName, schema, ruleFile, createClass);
-				final CorrVariablePattern contextCorr = createMapping(eContainer, rule, false, "Context");
+				final CorrVariablePattern contextCorr = createMapping(eContainer, rule, Role.CONTEXT);
 
 				createNewLink(contextCorr.getSource(), rule.getSourcePatterns().get(0), containment);
 				createNewLink(contextCorr.getTarget(), rule.getTargetPatterns().get(0), containment);
 			}
 		}
-		save(ruleFile);
 	}
 
 	/**
-	 * @param name
-	 * @param schema
-	 * @return
+	 * Creates a new rule file importing the schema and the attribute condition
+	 * library
+	 *
+	 * @param schema The schema
+	 * @return The rule file
 	 */
-	private TripleGraphGrammarFile createRuleFile(final String name, Schema schema) {
-		final IPath tggFile = this.project.getFile(IbexTGGNature.SCHEMA_FILE).getParent().getProjectRelativePath()
-				.append("rules/" + name + ".tgg");
-		final Resource ruleResource = this.resourceSet.createResource(
-				URI.createPlatformResourceURI(this.project.getName() + File.separator + tggFile.toString(), true));
+	private TripleGraphGrammarFile createRuleFile(Schema schema) {
 		final TripleGraphGrammarFile ruleFile = TggFactory.eINSTANCE.createTripleGraphGrammarFile();
-		ruleResource.getContents().add(ruleFile);
 		addUse(ruleFile, schema.getName() + ".*");
 		addUse(ruleFile, "AttrCondDefLibrary.*");
 		return ruleFile;
 	}
 
+	/**
+	 * Adds the rule file to a new resource in the rules folder of the location
+	 *
+	 * @param generated The generated rule file
+	 * @return The rule file
+	 */
+	private TripleGraphGrammarFile attach(GeneratedRuleFile generated) {
+		final Resource ruleResource = this.resourceSet.createResource(this.location.getRuleURI(generated.getName()));
+		final TripleGraphGrammarFile ruleFile = generated.getFile();
+		ruleResource.getContents().add(ruleFile);
+		for (final Rule rule : ruleFile.getRules()) {
+			this.metrics.increment(Counter.RULES, 1);
+			this.metrics.increment(Counter.ATTRIBUTE_CONDITIONS, rule.getAttrConditions().size());
+		}
+		return ruleFile;
+	}
+
+	/**
+	 * Deletes a previously generated rule file from the location
+	 *
+	 * @param name The name of the rule file without the file extension
+	 * @throws IOException If the file couldn't be deleted
+	 */
+	public void deleteRuleFile(String name) throws IOException {
+		this.location.deleteRuleFile(name);
+		if (this.contentManifest != null) {
+			this.contentManifest.remove(getContentKey(this.location.getRuleURI(name)));
+		}
+	}
+
+	/**
+	 * The name of the file containing the rules translating the EClass
+	 *
+	 * @param eClass A concrete EClass
+	 * @return The name of the file without the file extension
+	 */
+	public static String getRuleFileName(EClass eClass) {
+		return eClass.getName();
+	}
+
+	/**
+	 * The name of the rule translating the EReference, which is also used as name
+	 * of the file containing the rule
+	 *
+	 * @param eReference An EReference
+	 * @return The name of the rule
+	 */
+	public static String getLinkRuleName(EReference eReference) {
+		return eReference.getEContainingClass().getName() + "LinkTo" + eReference.getEType().getName() + "With"
+				+ eReference.getName();
+	}
+
 	/**
 	 * @param ruleFile
 	 * @param nameSpace
@@ -214,41 +569,50 @@ public class RuleCreator {
 	}
 
 	/**
+	 * Creates a source and a target variable for the class and a correspondence
+	 * between them. For created classes the correspondences of all super types
+	 * are created as well.
 	 *
-	 * @param create
-	 * @param createClass
-	 * @param rule
-	 * @param postfix
-	 * @return
-	 * @return
+	 * @param createClass The EClass
+	 * @param rule        The rule into which the patterns should be inserted
+	 * @param role        The role of the class in the rule
+	 * @return The correspondence between the variables
 	 */
-	private CorrVariablePattern createMapping(EClass createClass, Rule rule, boolean create, String postfix) {
-		final ObjectVariablePattern src = createVariable(createClass, create, "s", postfix);
+	private CorrVariablePattern createMapping(EClass createClass, Rule rule, Role role) {
+		final RuleTemplate template = getTemplate(createClass);
+		final boolean create = role == Role.CREATE;
+		final ObjectVariablePattern src = createVariable(createClass, create, template.getSourceName(role));
 		rule.getSourcePatterns().add(src);
 
-		final ObjectVariablePattern trg = createVariable(createClass, create, "t", postfix);
+		final ObjectVariablePattern trg = createVariable(createClass, create, template.getTargetName(role));
 		rule.getTargetPatterns().add(trg);
 
-		final CorrType corrType = this.correspondences.getCorrespondence(createClass);
-		String corrPostFix = postfix;
-		if (!create) {
-			corrPostFix += "Context";
-		}
-		final CorrVariablePattern corr = createCorrespondence(src, trg, corrType, create, corrPostFix);
+		final CorrVariablePattern corr = createCorrespondence(src, trg, template.getCorrType(), create,
+				template.getCorrName(role));
 		rule.getCorrespondencePatterns().add(corr);
 
 		if (create) {
-			final List<CorrVariablePattern> parentCorr = createClass.getEAllSuperTypes().parallelStream()
-					.filter(parent -> this.correspondences.containsKey(parent)).map(parent -> {
-						final CorrType parentCorrType = this.correspondences.getCorrespondence(parent);
-						return createCorrespondence(src, trg, parentCorrType, true, "");
-					}).collect(Collectors.toList());
-			rule.getCorrespondencePatterns().addAll(parentCorr);
+			final List<CorrType> parentCorrTypes = template.getParentCorrTypes();
+			final List<String> parentCorrNames = template.getParentCorrNames();
+			final EList<CorrVariablePattern> patterns = rule.getCorrespondencePatterns();
+			for (int i = 0; i < parentCorrTypes.size(); i++) {
+				patterns.add(createCorrespondence(src, trg, parentCorrTypes.get(i), true, parentCorrNames.get(i)));
+			}
 		}
 
 		return corr;
 	}
 
+	/**
+	 * The template of the class, which is computed on the first request
+	 *
+	 * @param eClass An EClass
+	 * @return The template
+	 */
+	private RuleTemplate getTemplate(EClass eClass) {
+		return this.templates.computeIfAbsent(eClass, key -> new RuleTemplate(key, this.correspondences));
+	}
+
 	/**
 	 * @param target
 	 * @param objectVariablePattern
@@ -270,12 +634,12 @@ public class RuleCreator {
 	 * @param trg
 	 * @param type
 	 * @param create
+	 * @param corrName
 	 * @return
 	 */
 	private CorrVariablePattern createCorrespondence(final ObjectVariablePattern src, final ObjectVariablePattern trg,
-			final CorrType type, boolean create, String postfix) {
+			final CorrType type, boolean create, String corrName) {
 		final CorrVariablePattern corr = TggFactory.eINSTANCE.createCorrVariablePattern();
-		final String corrName = "corr" + type.getName() + postfix;
 		if (create) {
 			corr.setOp(getCreateOperator());
 		}
@@ -289,13 +653,11 @@ public class RuleCreator {
 	/**
 	 * @param type
 	 * @param create
-	 * @param prefix
-	 * @param postfix
+	 * @param targetName
 	 * @return
 	 */
-	private ObjectVariablePattern createVariable(EClass type, boolean create, String prefix, String postfix) {
+	private ObjectVariablePattern createVariable(EClass type, boolean create, String targetName) {
 		final ObjectVariablePattern trg = TggFactory.eINSTANCE.createObjectVariablePattern();
-		final String targetName = prefix + type.getName() + postfix;
 		if (create) {
 			trg.setOp(getCreateOperator());
 		}
@@ -304,6 +666,12 @@ public class RuleCreator {
 		return trg;
 	}
 
+	/**
+	 * Creates a new create operator. The operators are contained in the patterns
+	 * and can therefore not be shared.
+	 *
+	 * @return The operator
+	 */
 	private Operator getCreateOperator() {
 		final Operator operator = TggFactory.eINSTANCE.createOperator();
 		operator.setValue("++");
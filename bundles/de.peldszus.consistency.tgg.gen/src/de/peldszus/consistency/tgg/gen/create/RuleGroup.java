@@ -0,0 +1,86 @@
+package de.peldszus.consistency.tgg.gen.create;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EReference;
+
+/**
+ * The EClasses and EReferences whose rules are written into the same rule file
+ *
+ * @author speldszus
+ *
+ */
+public class RuleGroup {
+
+	private final String name;
+	private final List<EClass> eClasses;
+	private final List<EReference> eReferences;
+
+	/**
+	 * Creates a new empty group
+	 *
+	 * @param name The name of the rule file without the file extension
+	 */
+	public RuleGroup(String name) {
+		this.name = name;
+		this.eClasses = new ArrayList<>();
+		this.eReferences = new ArrayList<>();
+	}
+
+	/**
+	 * The name of the rule file without the file extension
+	 *
+	 * @return the name
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * The concrete EClasses whose create rules are contained in the file
+	 *
+	 * @return An unmodifiable list of the EClasses
+	 */
+	public List<EClass> getEClasses() {
+		return Collections.unmodifiableList(this.eClasses);
+	}
+
+	/**
+	 * The EReferences whose link rules are contained in the file
+	 *
+	 * @return An unmodifiable list of the EReferences
+	 */
+	public List<EReference> getEReferences() {
+		return Collections.unmodifiableList(this.eReferences);
+	}
+
+	/**
+	 * The number of EClasses and EReferences in the group
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return this.eClasses.size() + this.eReferences.size();
+	}
+
+	/**
+	 * Adds an EClass to the group
+	 *
+	 * @param eClass A concrete EClass
+	 */
+	void add(EClass eClass) {
+		this.eClasses.add(eClass);
+	}
+
+	/**
+	 * Adds an EReference to the group
+	 *
+	 * @param eReference An EReference
+	 */
+	void add(EReference eReference) {
+		this.eReferences.add(eReference);
+	}
+}
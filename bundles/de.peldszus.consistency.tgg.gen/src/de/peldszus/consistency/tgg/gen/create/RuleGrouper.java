@@ -0,0 +1,199 @@
+package de.peldszus.consistency.tgg.gen.create;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EReference;
+
+import de.peldszus.consistency.tgg.gen.RuleGrouping;
+import de.peldszus.consistency.tgg.gen.handle.ConainerHandler;
+import de.peldszus.consistency.tgg.gen.handle.FingerprintHandler;
+
+/**
+ * Distributes the EClasses and EReferences for which rules are created over
+ * rule files according to a {@link RuleGrouping}
+ *
+ * @author speldszus
+ *
+ */
+public class RuleGrouper {
+
+	private static final String PACKAGE_SUFFIX = "Rules";
+	private static final String TREE_SUFFIX = "Tree";
+	private static final String FIXED_SIZE_PREFIX = "Rules";
+
+	private final RuleGrouping grouping;
+	private final int size;
+	private final ConainerHandler containers;
+	private final Map<EClass, EClass> roots;
+
+	/**
+	 * Initializes a grouper
+	 *
+	 * @param grouping   The strategy for grouping the rules
+	 * @param size       The maximal size of the groups with the fixed size strategy
+	 * @param containers The handler providing information about containment edges
+	 */
+	public RuleGrouper(RuleGrouping grouping, int size, ConainerHandler containers) {
+		this.grouping = grouping;
+		this.size = size;
+		this.containers = containers;
+		this.roots = new HashMap<>();
+	}
+
+	/**
+	 * Groups the EClasses and EReferences. The groups and their members are
+	 * ordered by the first occurrence in the given lists.
+	 *
+	 * @param eClasses    The concrete EClasses for which rules should be created
+	 * @param eReferences The EReferences for which link rules should be created
+	 * @return The groups
+	 */
+	public List<RuleGroup> group(List<EClass> eClasses, List<EReference> eReferences) {
+		final Map<Object, RuleGroup> groups = new LinkedHashMap<>();
+		final Set<String> names = new HashSet<>();
+		switch (this.grouping) {
+		case PER_PACKAGE:
+			for (final EClass eClass : eClasses) {
+				getGroup(groups, names, eClass.getEPackage(), eClass.getEPackage().getName() + PACKAGE_SUFFIX)
+						.add(eClass);
+			}
+			for (final EReference eReference : eReferences) {
+				final EClass eClass = eReference.getEContainingClass();
+				getGroup(groups, names, eClass.getEPackage(), eClass.getEPackage().getName() + PACKAGE_SUFFIX)
+						.add(eReference);
+			}
+			break;
+		case PER_CONTAINMENT_TREE:
+			for (final EClass eClass : eClasses) {
+				final EClass root = getRoot(eClass);
+				getGroup(groups, names, root, root.getName() + TREE_SUFFIX).add(eClass);
+			}
+			for (final EReference eReference : eReferences) {
+				final EClass root = getRoot(eReference.getEContainingClass());
+				getGroup(groups, names, root, root.getName() + TREE_SUFFIX).add(eReference);
+			}
+			break;
+		case FIXED_SIZE:
+			return groupFixedSize(eClasses, eReferences);
+		default:
+			for (final EClass eClass : eClasses) {
+				getGroup(groups, names, eClass, RuleCreator.getRuleFileName(eClass)).add(eClass);
+			}
+			for (final EReference eReference : eReferences) {
+				getGroup(groups, names, eReference, RuleCreator.getLinkRuleName(eReference)).add(eReference);
+			}
+		}
+		return new ArrayList<>(groups.values());
+	}
+
+	/**
+	 * Groups the EClasses and EReferences in their order into groups of the
+	 * configured size
+	 *
+	 * @param eClasses    The concrete EClasses for which rules should be created
+	 * @param eReferences The EReferences for which link rules should be created
+	 * @return The groups
+	 */
+	private List<RuleGroup> groupFixedSize(List<EClass> eClasses, List<EReference> eReferences) {
+		final List<RuleGroup> groups = new ArrayList<>();
+		RuleGroup current = null;
+		for (final EClass eClass : eClasses) {
+			current = getFixedSizeGroup(groups, current);
+			current.add(eClass);
+		}
+		for (final EReference eReference : eReferences) {
+			current = getFixedSizeGroup(groups, current);
+			current.add(eReference);
+		}
+		return groups;
+	}
+
+	/**
+	 * Searches the group of the key or creates a new one. If the name is already
+	 * used by the group of another key, a number is appended to the name.
+	 *
+	 * @param groups The groups by their keys
+	 * @param names  The names of all groups
+	 * @param key    The key of the group
+	 * @param name   The preferred name of the group
+	 * @return The group
+	 */
+	private static RuleGroup getGroup(Map<Object, RuleGroup> groups, Set<String> names, Object key, String name) {
+		RuleGroup group = groups.get(key);
+		if (group == null) {
+			String unique = name;
+			for (int i = 1; !names.add(unique); i++) {
+				unique = name + i;
+			}
+			group = new RuleGroup(unique);
+			groups.put(key, group);
+		}
+		return group;
+	}
+
+	/**
+	 * Returns the current group or a new one if the current group is full
+	 *
+	 * @param groups  The groups created so far
+	 * @param current The current group or null
+	 * @return The group into which the next element should be inserted
+	 */
+	private RuleGroup getFixedSizeGroup(List<RuleGroup> groups, RuleGroup current) {
+		if (current != null && current.size() < this.size) {
+			return current;
+		}
+		final RuleGroup group = new RuleGroup(FIXED_SIZE_PREFIX + groups.size());
+		groups.add(group);
+		return group;
+	}
+
+	/**
+	 * Searches the root of the containment tree of the class by following the
+	 * first container reference of each class. For classes on a containment cycle
+	 * the class of the cycle with the smallest ID is the root.
+	 *
+	 * @param eClass An EClass
+	 * @return The root EClass
+	 */
+	private EClass getRoot(EClass eClass) {
+		final EClass known = this.roots.get(eClass);
+		if (known != null) {
+			return known;
+		}
+		final List<EClass> path = new ArrayList<>();
+		EClass current = eClass;
+		EClass root = null;
+		while (root == null) {
+			final EClass cached = this.roots.get(current);
+			final int cycle = path.indexOf(current);
+			if (cached != null) {
+				root = cached;
+			} else if (cycle >= 0) {
+				root = path.subList(cycle, path.size()).stream()
+						.min(Comparator.comparing((EClass member) -> FingerprintHandler.getId(member))).orElse(current);
+			} else {
+				path.add(current);
+				final Iterator<EReference> containments = this.containers.getAllContainerReferences(current)
+						.iterator();
+				if (containments.hasNext()) {
+					current = containments.next().getEContainingClass();
+				} else {
+					root = current;
+				}
+			}
+		}
+		for (final EClass member : path) {
+			this.roots.put(member, root);
+		}
+		return root;
+	}
+}
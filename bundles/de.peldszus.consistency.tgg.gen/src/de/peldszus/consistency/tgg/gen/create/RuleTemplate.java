@@ -0,0 +1,115 @@
+package de.peldszus.consistency.tgg.gen.create;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.emf.ecore.EClass;
+import org.moflon.tgg.mosl.tgg.CorrType;
+
+import de.peldszus.consistency.tgg.gen.handle.CorrespondenceHandler;
+
+/**
+ * The names and correspondence types needed for translating an EClass, which
+ * are computed once per class and shared by all rules using the class
+ *
+ * @author speldszus
+ *
+ */
+final class RuleTemplate {
+
+	/**
+	 * The roles in which a class can be used in a rule
+	 */
+	enum Role {
+		CREATE(""), SOURCE("Source"), TARGET("Target"), CONTEXT("Context");
+
+		private final String postfix;
+
+		Role(String postfix) {
+			this.postfix = postfix;
+		}
+	}
+
+	private final CorrType corrType;
+	private final String[] sourceNames;
+	private final String[] targetNames;
+	private final String[] corrNames;
+	private final List<CorrType> parentCorrTypes;
+	private final List<String> parentCorrNames;
+
+	/**
+	 * Computes the template of the class
+	 *
+	 * @param eClass          The EClass
+	 * @param correspondences The handler providing the correspondence types
+	 */
+	RuleTemplate(EClass eClass, CorrespondenceHandler correspondences) {
+		this.corrType = correspondences.getCorrespondence(eClass);
+		final Role[] roles = Role.values();
+		this.sourceNames = new String[roles.length];
+		this.targetNames = new String[roles.length];
+		this.corrNames = new String[roles.length];
+		final String name = eClass.getName();
+		for (final Role role : roles) {
+			this.sourceNames[role.ordinal()] = "s" + name + role.postfix;
+			this.targetNames[role.ordinal()] = "t" + name + role.postfix;
+			if (this.corrType != null) {
+				final String corrPostfix = role == Role.CREATE ? "" : role.postfix + "Context";
+				this.corrNames[role.ordinal()] = "corr" + this.corrType.getName() + corrPostfix;
+			}
+		}
+		this.parentCorrTypes = correspondences.getAncestorCorrespondences(eClass);
+		final List<String> parentNames = new ArrayList<>(this.parentCorrTypes.size());
+		for (final CorrType parentCorrType : this.parentCorrTypes) {
+			parentNames.add("corr" + parentCorrType.getName());
+		}
+		this.parentCorrNames = Collections.unmodifiableList(parentNames);
+	}
+
+	/**
+	 * @return The correspondence type of the class
+	 */
+	CorrType getCorrType() {
+		return this.corrType;
+	}
+
+	/**
+	 * @param role The role of the class in the rule
+	 * @return The name of the source variable
+	 */
+	String getSourceName(Role role) {
+		return this.sourceNames[role.ordinal()];
+	}
+
+	/**
+	 * @param role The role of the class in the rule
+	 * @return The name of the target variable
+	 */
+	String getTargetName(Role role) {
+		return this.targetNames[role.ordinal()];
+	}
+
+	/**
+	 * @param role The role of the class in the rule
+	 * @return The name of the correspondence variable
+	 */
+	String getCorrName(Role role) {
+		return this.corrNames[role.ordinal()];
+	}
+
+	/**
+	 * @return The correspondence types of all super types
+	 */
+	List<CorrType> getParentCorrTypes() {
+		return this.parentCorrTypes;
+	}
+
+	/**
+	 * @return The names of the correspondence variables of all super types, in
+	 *         the order of {@link #getParentCorrTypes()}
+	 */
+	List<String> getParentCorrNames() {
+		return this.parentCorrNames;
+	}
+}
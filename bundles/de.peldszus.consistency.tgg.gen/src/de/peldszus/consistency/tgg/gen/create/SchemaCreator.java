@@ -1,17 +1,18 @@
 package de.peldszus.consistency.tgg.gen.create;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
-import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EDataType;
 import org.eclipse.emf.ecore.EPackage;
 import org.eclipse.emf.ecore.resource.Resource;
@@ -24,13 +25,27 @@ import org.moflon.tgg.mosl.tgg.Schema;
 import org.moflon.tgg.mosl.tgg.TggFactory;
 import org.moflon.tgg.mosl.tgg.TripleGraphGrammarFile;
 
+import de.peldszus.consistency.tgg.gen.handle.ContentManifest;
+import de.peldszus.consistency.tgg.gen.handle.FingerprintHandler;
+
 public class SchemaCreator {
 
-	private final IProject project;
+	private final TGGLocation location;
 	private final ResourceSet resourceSet;
+	private ContentManifest contentManifest;
 
 	public SchemaCreator(IProject project, ResourceSet resourceSet) {
-		this.project = project;
+		this(new ProjectLocation(project), resourceSet);
+	}
+
+	/**
+	 * Initializes a creator writing the schema into the given location
+	 *
+	 * @param location    The location of the generated TGG
+	 * @param resourceSet The resource set into which the schema should be inserted
+	 */
+	public SchemaCreator(TGGLocation location, ResourceSet resourceSet) {
+		this.location = location;
 		this.resourceSet = resourceSet;
 	}
 
@@ -43,10 +58,24 @@ public class SchemaCreator {
 	 */
 	public Schema createSchema(String name, final Set<EPackage> allEPackages, Set<EDataType> allEDataTypes, Set<CorrType> collection)
 			throws IOException {
+		final Schema schema = buildSchema(name, allEPackages, allEDataTypes, collection);
+		save(schema);
+		return schema;
+	}
 
-		final IFile schemaLocation = this.project.getFile(IbexTGGNature.SCHEMA_FILE);
-		final Resource schemaResource = this.resourceSet.createResource(URI
-				.createPlatformResourceURI(this.project.getName() + File.separator + IbexTGGNature.SCHEMA_FILE, true));
+	/**
+	 * Creates a new schema and adds it to the resource set without saving it
+	 *
+	 * @param name          The name of the schema
+	 * @param allEPackages  The EPackages used as source and target types
+	 * @param allEDataTypes The data types for which equality conditions should be
+	 *                      defined
+	 * @param collection    The correspondence types
+	 * @return The schema
+	 */
+	public Schema buildSchema(String name, final Set<EPackage> allEPackages, Set<EDataType> allEDataTypes,
+			Set<CorrType> collection) {
+		final Resource schemaResource = this.resourceSet.createResource(this.location.getSchemaURI());
 		final Schema schema = TggFactory.eINSTANCE.createSchema();
 		schema.setName(name);
 		schema.getSourceTypes().addAll(allEPackages);
@@ -57,15 +86,51 @@ public class SchemaCreator {
 		schemaFile.getImports().addAll(createEPackageImports(allEPackages));
 
 		final Collection<AttrCondDef> attributeCondDefs = allEDataTypes.parallelStream()
+				.sorted(Comparator.comparing((EDataType data) -> FingerprintHandler.getId(data)))
 				.map(data -> AttributeConditionCreator.createEqualsContitionForType(data))
-				.collect(Collectors.toSet());
+				.collect(Collectors.toList());
 		schema.getAttributeCondDefs().addAll(attributeCondDefs );
 
 		schemaResource.getContents().add(schemaFile);
-		schemaResource.save(new FileOutputStream(schemaLocation.getLocation().toFile()), Collections.emptyMap());
 		return schema;
 	}
 
+	/**
+	 * Saves the schema into the schema file of the location. If the content
+	 * manifest shows that the existing file has the same content, the file is not
+	 * written again.
+	 *
+	 * @param schema The schema
+	 * @return The number of written bytes
+	 * @throws IOException If the schema couldn't be stored
+	 */
+	public long save(Schema schema) throws IOException {
+		final File schemaLocation = this.location.getSchemaFile();
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		schema.eResource().save(bytes, Collections.emptyMap());
+		if (this.contentManifest != null
+				&& !this.contentManifest.update(IbexTGGNature.SCHEMA_FILE, bytes.toByteArray())
+				&& schemaLocation.exists()) {
+			return 0;
+		}
+		Files.createDirectories(schemaLocation.getParentFile().toPath());
+		try (FileOutputStream out = new FileOutputStream(schemaLocation)) {
+			bytes.writeTo(out);
+		}
+		return bytes.size();
+	}
+
+	/**
+	 * Sets the manifest of the file contents, which is used to skip writing an
+	 * unchanged schema
+	 *
+	 * @param contentManifest The manifest or null if the schema should always be
+	 *                        written
+	 */
+	public void setContentManifest(ContentManifest contentManifest) {
+		this.contentManifest = contentManifest;
+	}
+
 	/**
 	 * @param allEPackages
 	 * @param factory
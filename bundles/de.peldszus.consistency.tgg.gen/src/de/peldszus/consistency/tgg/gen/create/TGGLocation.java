@@ -0,0 +1,69 @@
+package de.peldszus.consistency.tgg.gen.create;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.eclipse.emf.common.util.URI;
+import org.emoflon.ibex.tgg.ide.admin.IbexTGGNature;
+
+/**
+ * The location into which the files of a TGG are generated
+ *
+ * @author speldszus
+ *
+ */
+public interface TGGLocation {
+
+	/**
+	 * The location of the rule files relative to the root of the location
+	 */
+	String RULES_FOLDER = IbexTGGNature.SCHEMA_FILE.substring(0, IbexTGGNature.SCHEMA_FILE.lastIndexOf('/') + 1)
+			+ "rules/";
+
+	/**
+	 * The name of the TGG, which is also used as name of the schema
+	 *
+	 * @return the name
+	 */
+	String getName();
+
+	/**
+	 * The URI of the resource containing the schema
+	 *
+	 * @return the URI
+	 */
+	URI getSchemaURI();
+
+	/**
+	 * The file into which the schema should be written
+	 *
+	 * @return the file
+	 */
+	File getSchemaFile();
+
+	/**
+	 * The URI of the resource of a rule file
+	 *
+	 * @param name The name of the rule file without the file extension
+	 * @return the URI
+	 */
+	URI getRuleURI(String name);
+
+	/**
+	 * Deletes a previously generated rule file
+	 *
+	 * @param name The name of the rule file without the file extension
+	 * @throws IOException If the file couldn't be deleted
+	 */
+	void deleteRuleFile(String name) throws IOException;
+
+	/**
+	 * The location of a file in the file system
+	 *
+	 * @param relativePath The path of the file relative to the root of this
+	 *                     location
+	 * @return The path in the file system
+	 */
+	Path getPath(String relativePath);
+}
@@ -0,0 +1,183 @@
+package de.peldszus.consistency.tgg.gen.create;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import org.moflon.tgg.mosl.tgg.AttrCond;
+import org.moflon.tgg.mosl.tgg.AttributeExpression;
+import org.moflon.tgg.mosl.tgg.CorrVariablePattern;
+import org.moflon.tgg.mosl.tgg.LinkVariablePattern;
+import org.moflon.tgg.mosl.tgg.ObjectVariablePattern;
+import org.moflon.tgg.mosl.tgg.Operator;
+import org.moflon.tgg.mosl.tgg.ParamValue;
+import org.moflon.tgg.mosl.tgg.Rule;
+import org.moflon.tgg.mosl.tgg.TripleGraphGrammarFile;
+import org.moflon.tgg.mosl.tgg.Using;
+
+/**
+ * Writes rule files in the textual TGG syntax without the Xtext serializer. The
+ * emitter supports the shape of the rules created by the {@link RuleCreator}:
+ * object, link and correspondence patterns with optional create operators and
+ * attribute conditions on attributes of the object variables. The references
+ * are written with the names of the referenced elements, as the serializer does
+ * for the imports of the generated files.
+ *
+ * @author speldszus
+ *
+ */
+public class TGGTextEmitter {
+
+	private static final String INDENT = "\t";
+
+	/**
+	 * Checks if the emitter can write the rule file. Files containing a schema, a
+	 * library, abstract or refining rules or attribute assignments have to be
+	 * serialized by Xtext.
+	 *
+	 * @param ruleFile A rule file
+	 * @return true, iff the file is supported
+	 */
+	public boolean isSupported(TripleGraphGrammarFile ruleFile) {
+		if (ruleFile.getSchema() != null || ruleFile.getLibrary() != null || !ruleFile.getImports().isEmpty()) {
+			return false;
+		}
+		for (final Rule rule : ruleFile.getRules()) {
+			if (rule.isAbstractRule() || !rule.getSupertypes().isEmpty() || rule.getSchema() == null
+					|| !isSupported(rule.getSourcePatterns()) || !isSupported(rule.getTargetPatterns())) {
+				return false;
+			}
+			for (final AttrCond condition : rule.getAttrConditions()) {
+				for (final ParamValue value : condition.getValues()) {
+					if (!(value instanceof AttributeExpression)) {
+						return false;
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param patterns Object variable patterns
+	 * @return true, iff none of the patterns assigns or constrains an attribute
+	 */
+	private static boolean isSupported(List<ObjectVariablePattern> patterns) {
+		for (final ObjectVariablePattern pattern : patterns) {
+			if (!pattern.getAttributeAssignments().isEmpty() || !pattern.getAttributeConstraints().isEmpty()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Writes the rule file
+	 *
+	 * @param ruleFile A rule file supported by this emitter
+	 * @param writer   The writer into which the text should be written
+	 * @throws IOException If writing failed
+	 */
+	public void write(TripleGraphGrammarFile ruleFile, Writer writer) throws IOException {
+		for (final Using using : ruleFile.getUsing()) {
+			writer.append("#using ").append(using.getImportedNamespace()).append('\n');
+		}
+		for (final Rule rule : ruleFile.getRules()) {
+			writer.append('\n');
+			write(rule, writer);
+		}
+	}
+
+	/**
+	 * Writes a single rule
+	 *
+	 * @param rule   The rule
+	 * @param writer The writer into which the text should be written
+	 * @throws IOException If writing failed
+	 */
+	private static void write(Rule rule, Writer writer) throws IOException {
+		writer.append("#rule ").append(rule.getName()).append(" #with ").append(rule.getSchema().getName())
+				.append('\n');
+		writeObjectPatterns("#source", rule.getSourcePatterns(), writer);
+		writeObjectPatterns("#target", rule.getTargetPatterns(), writer);
+
+		final List<CorrVariablePattern> correspondences = rule.getCorrespondencePatterns();
+		if (!correspondences.isEmpty()) {
+			writer.append("\n#correspondence {\n");
+			for (final CorrVariablePattern corr : correspondences) {
+				writer.append(INDENT);
+				writeOperator(corr.getOp(), writer);
+				writer.append(corr.getName()).append(" : ").append(corr.getType().getName()).append(" {\n");
+				writer.append(INDENT).append(INDENT).append("#src->").append(corr.getSource().getName()).append('\n');
+				writer.append(INDENT).append(INDENT).append("#trg->").append(corr.getTarget().getName()).append('\n');
+				writer.append(INDENT).append("}\n");
+			}
+			writer.append("}\n");
+		}
+
+		final List<AttrCond> conditions = rule.getAttrConditions();
+		if (!conditions.isEmpty()) {
+			writer.append("\n#attributeConditions {\n");
+			for (final AttrCond condition : conditions) {
+				writer.append(INDENT).append(condition.getName().getName()).append('(');
+				String separator = "";
+				for (final ParamValue value : condition.getValues()) {
+					final AttributeExpression expression = (AttributeExpression) value;
+					writer.append(separator).append(expression.getObjectVar().getName()).append('.')
+							.append(expression.getAttribute().getName());
+					separator = ", ";
+				}
+				writer.append(")\n");
+			}
+			writer.append("}\n");
+		}
+	}
+
+	/**
+	 * Writes the source or target patterns of a rule
+	 *
+	 * @param keyword  The keyword of the domain
+	 * @param patterns The object variable patterns
+	 * @param writer   The writer into which the text should be written
+	 * @throws IOException If writing failed
+	 */
+	private static void writeObjectPatterns(String keyword, List<ObjectVariablePattern> patterns, Writer writer)
+			throws IOException {
+		if (patterns.isEmpty()) {
+			return;
+		}
+		writer.append('\n').append(keyword).append(" {\n");
+		for (final ObjectVariablePattern pattern : patterns) {
+			writer.append(INDENT);
+			writeOperator(pattern.getOp(), writer);
+			writer.append(pattern.getName()).append(" : ").append(pattern.getType().getName());
+			final List<LinkVariablePattern> links = pattern.getLinkVariablePatterns();
+			if (links.isEmpty()) {
+				writer.append('\n');
+				continue;
+			}
+			writer.append(" {\n");
+			for (final LinkVariablePattern link : links) {
+				writer.append(INDENT).append(INDENT);
+				writeOperator(link.getOp(), writer);
+				writer.append('-').append(link.getType().getName()).append("->").append(link.getTarget().getName())
+						.append('\n');
+			}
+			writer.append(INDENT).append("}\n");
+		}
+		writer.append("}\n");
+	}
+
+	/**
+	 * Writes the operator followed by a space
+	 *
+	 * @param operator The operator or null
+	 * @param writer   The writer into which the text should be written
+	 * @throws IOException If writing failed
+	 */
+	private static void writeOperator(Operator operator, Writer writer) throws IOException {
+		if (operator != null) {
+			writer.append(operator.getValue()).append(' ');
+		}
+	}
+}
@@ -1,11 +1,15 @@
 package de.peldszus.consistency.tgg.gen.handle;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EClassifier;
@@ -13,6 +17,7 @@ import org.eclipse.emf.ecore.EReference;
 
 public class ConainerHandler {
 	private final Map<EClassifier, Set<EReference>> containers;
+	private final Map<EClass, Set<EReference>> closure;
 
 	public ConainerHandler(Set<EClass> allEClasses) {
 		this.containers = new HashMap<>();
@@ -23,24 +28,73 @@ public class ConainerHandler {
 				}
 			}
 		}
+		this.closure = new HashMap<>();
+		for (final EClass eClass : sortBySuperTypes(allEClasses)) {
+			final Set<EReference> references = new LinkedHashSet<>();
+			final Set<EReference> own = this.containers.get(eClass);
+			if (own != null) {
+				references.addAll(own);
+			}
+			for (final EClass superType : eClass.getESuperTypes()) {
+				final Set<EReference> inherited = this.closure.get(superType);
+				if (inherited != null) {
+					references.addAll(inherited);
+				}
+			}
+			this.closure.put(eClass, references.isEmpty() ? Collections.emptySet()
+					: Collections.unmodifiableSet(references));
+		}
 	}
 
 	/**
-	 * @param eClass
-	 * @return
+	 * Sorts the classes and their super types so that each class follows all of
+	 * its super types. Information inherited along the hierarchy, e.g. the
+	 * closures of the containment references, can then be computed in a single
+	 * pass reusing the results of the super types.
+	 *
+	 * @param eClasses Some EClasses
+	 * @return The EClasses and their super types in topological order
+	 */
+	static List<EClass> sortBySuperTypes(Set<EClass> eClasses) {
+		final List<EClass> sorted = new ArrayList<>(eClasses.size());
+		final Set<EClass> visited = new HashSet<>();
+		final Deque<EClass> stack = new ArrayDeque<>();
+		for (final EClass eClass : eClasses) {
+			if (visited.add(eClass)) {
+				stack.push(eClass);
+			}
+			while (!stack.isEmpty()) {
+				final EClass top = stack.peek();
+				boolean pushed = false;
+				for (final EClass superType : top.getESuperTypes()) {
+					if (visited.add(superType)) {
+						stack.push(superType);
+						pushed = true;
+						break;
+					}
+				}
+				if (!pushed) {
+					sorted.add(stack.pop());
+				}
+			}
+		}
+		return sorted;
+	}
+
+	/**
+	 * All containment references which can contain instances of the class,
+	 * including the references containing its super types. The references are
+	 * precomputed and can be queried concurrently.
+	 *
+	 * @param eClass An EClass
+	 * @return An unmodifiable set of the references
 	 */
 	public Set<EReference> getAllContainerReferences(EClass eClass) {
-		final Set<EReference> set = getContainingReferences(eClass);
-		final Stream<EReference> thisContainers;
-		if (set == null) {
-			thisContainers = Stream.empty();
-		} else {
-			thisContainers = set.parallelStream();
+		final Set<EReference> references = this.closure.get(eClass);
+		if (references == null) {
+			return Collections.emptySet();
 		}
-		final Stream<EReference> parentContainers = eClass.getEAllSuperTypes().parallelStream()
-				.filter(parent -> hasContainingReference(parent))
-				.flatMap(parent -> getContainingReferences(parent).parallelStream());
-		return Stream.concat(thisContainers, parentContainers).collect(Collectors.toSet());
+		return references;
 	}
 
 	/**
@@ -51,17 +105,9 @@ public class ConainerHandler {
 	private static <K, V> void add(final Map<K, Set<V>> map, final K key, final V value) {
 		Set<V> refs = map.get(key);
 		if (refs == null) {
-			refs = new HashSet<>();
+			refs = new LinkedHashSet<>();
 			map.put(key, refs);
 		}
 		refs.add(value);
 	}
-
-	public Set<EReference> getContainingReferences(EClass eClass) {
-		return this.containers.get(eClass);
-	}
-
-	public boolean hasContainingReference(EClass eClass) {
-		return this.containers.containsKey(eClass);
-	}
-}
\ No newline at end of file
+}
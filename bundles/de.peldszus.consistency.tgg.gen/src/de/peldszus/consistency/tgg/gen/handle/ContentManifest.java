@@ -0,0 +1,132 @@
+package de.peldszus.consistency.tgg.gen.handle;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+/**
+ * The hashes of the contents of all files written by a generation. Files whose
+ * content didn't change since the previous generation are not written again, so
+ * that the Eclipse builders are not triggered for them.
+ *
+ * @author speldszus
+ *
+ */
+public class ContentManifest {
+
+	/**
+	 * The location relative path of the persisted content hashes
+	 */
+	public static final String MANIFEST_FILE = ".consistency-tgg/contents";
+
+	private final Map<String, String> hashes;
+
+	/**
+	 * Creates an empty manifest
+	 */
+	public ContentManifest() {
+		this.hashes = new TreeMap<>();
+	}
+
+	/**
+	 * Records the content of a file and checks if it differs from the recorded
+	 * content of the previous generation
+	 *
+	 * @param key     The location relative path of the file
+	 * @param content The content of the file
+	 * @return true, iff the content changed or hasn't been recorded before
+	 */
+	public boolean update(String key, byte[] content) {
+		final String hash = hash(content);
+		return !hash.equals(this.hashes.put(key, hash));
+	}
+
+	/**
+	 * Removes the hash of a deleted file
+	 *
+	 * @param key The location relative path of the file
+	 */
+	public void remove(String key) {
+		this.hashes.remove(key);
+	}
+
+	/**
+	 * Loads the manifest of a previous generation
+	 *
+	 * @param file The file containing the manifest
+	 * @return The manifest or an empty manifest if the file doesn't exist
+	 * @throws IOException If reading the file failed
+	 */
+	public static ContentManifest load(Path file) throws IOException {
+		final ContentManifest manifest = new ContentManifest();
+		if (!Files.exists(file)) {
+			return manifest;
+		}
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				final int separator = line.indexOf('\t');
+				if (separator > 0) {
+					manifest.hashes.put(line.substring(separator + 1), line.substring(0, separator));
+				}
+			}
+		}
+		return manifest;
+	}
+
+	/**
+	 * Stores the manifest sorted by the paths of the files
+	 *
+	 * @param file The file into which the manifest should be written
+	 * @throws IOException If writing the file failed
+	 */
+	public void store(Path file) throws IOException {
+		Files.createDirectories(file.getParent());
+		try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			for (final Entry<String, String> entry : this.hashes.entrySet()) {
+				writer.write(entry.getValue());
+				writer.write('\t');
+				writer.write(entry.getKey());
+				writer.newLine();
+			}
+		}
+	}
+
+	/**
+	 * Calculates a hash value of the content
+	 *
+	 * @param content The content of a file
+	 * @return The hash value as hex string
+	 */
+	private static String hash(byte[] content) {
+		try {
+			final byte[] bytes = MessageDigest.getInstance("SHA-256").digest(content);
+			return toHex(bytes);
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Encodes bytes, e.g. a hash value, as lower case hex string
+	 *
+	 * @param bytes The bytes
+	 * @return The hex string with two digits per byte
+	 */
+	public static String toHex(byte[] bytes) {
+		final char[] digits = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			digits[2 * i] = Character.forDigit((bytes[i] >> 4) & 0xf, 16);
+			digits[2 * i + 1] = Character.forDigit(bytes[i] & 0xf, 16);
+		}
+		return new String(digits);
+	}
+}
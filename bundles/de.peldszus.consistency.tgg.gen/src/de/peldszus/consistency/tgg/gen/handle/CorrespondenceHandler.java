@@ -1,6 +1,12 @@
 package de.peldszus.consistency.tgg.gen.handle;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -11,6 +17,7 @@ import org.moflon.tgg.mosl.tgg.TggFactory;
 
 public class CorrespondenceHandler {
 	private final Map<EClass, CorrType> correspondencesMap;
+	private final Map<EClass, List<CorrType>> ancestorsMap;
 
 	public CorrespondenceHandler(final Set<EClass> allEClasses) {
 		this.correspondencesMap = allEClasses.parallelStream().map(eClass -> {
@@ -19,11 +26,30 @@ public class CorrespondenceHandler {
 			corr.setSource(eClass);
 			corr.setTarget(eClass);
 			return corr;
-		}).collect(Collectors.toMap(corr -> corr.getSource(), corr -> corr));
+		}).collect(Collectors.toMap(corr -> corr.getSource(), corr -> corr, (first, second) -> first,
+				LinkedHashMap::new));
+
+		this.ancestorsMap = new HashMap<>();
+		// The super types precede their sub types, so their ancestors are already known
+		for (final EClass eClass : ConainerHandler.sortBySuperTypes(allEClasses)) {
+			final Set<CorrType> ancestors = new LinkedHashSet<>();
+			for (final EClass superType : eClass.getESuperTypes()) {
+				final List<CorrType> inherited = this.ancestorsMap.get(superType);
+				if (inherited != null) {
+					ancestors.addAll(inherited);
+				}
+				final CorrType corrType = this.correspondencesMap.get(superType);
+				if (corrType != null) {
+					ancestors.add(corrType);
+				}
+			}
+			this.ancestorsMap.put(eClass, ancestors.isEmpty() ? Collections.emptyList()
+					: Collections.unmodifiableList(new ArrayList<>(ancestors)));
+		}
 	}
 
 	public Collection<CorrType> allCorrespondences() {
-		return this.correspondencesMap.values();
+		return Collections.unmodifiableCollection(this.correspondencesMap.values());
 	}
 
 	public CorrType getCorrespondence(EClass key) {
@@ -33,4 +59,20 @@ public class CorrespondenceHandler {
 	public boolean containsKey(EClass key) {
 		return this.correspondencesMap.containsKey(key);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * The correspondence types of all super types of the class, which have been
+	 * computed once for all classes
+	 *
+	 * @param eClass An EClass
+	 * @return An unmodifiable list of the correspondence types in the order of
+	 *         {@link EClass#getEAllSuperTypes()}
+	 */
+	public List<CorrType> getAncestorCorrespondences(EClass eClass) {
+		final List<CorrType> ancestors = this.ancestorsMap.get(eClass);
+		if (ancestors == null) {
+			return Collections.emptyList();
+		}
+		return ancestors;
+	}
+}
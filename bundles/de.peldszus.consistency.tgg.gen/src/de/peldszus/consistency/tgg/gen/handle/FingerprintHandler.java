@@ -0,0 +1,404 @@
+package de.peldszus.consistency.tgg.gen.handle;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.moflon.tgg.mosl.tgg.AttrCondDef;
+
+import de.peldszus.consistency.tgg.gen.FeatureFilter;
+
+/**
+ * Computes fingerprints of the meta model elements and of the TGG files
+ * generated for them. By comparing the fingerprints with the ones of a previous
+ * generation, the files which have to be regenerated or deleted can be
+ * determined.
+ *
+ * @author speldszus
+ *
+ */
+public class FingerprintHandler {
+
+	/**
+	 * The project relative location of the persisted fingerprints
+	 */
+	public static final String FINGERPRINT_FILE = ".consistency-tgg/fingerprints";
+
+	private static final String SCHEMA_KEY = "schema";
+	private static final String RULE_PREFIX = "rule:";
+	private static final String ELEMENT_PREFIX = "element:";
+	private static final String EQUALITY_PREFIX = "equality:";
+
+	private final String schemaName;
+	private final FeatureFilter featureFilter;
+	private final ConainerHandler containers;
+	private final Map<String, String> elements;
+	private final Map<String, String> files;
+	private final Set<String> schemaElements;
+	private Function<EDataType, AttrCondDef> equalityConditions;
+
+	/**
+	 * Computes the fingerprints of all EClasses, EReferences and EDataTypes
+	 *
+	 * @param packageElements The handler providing the elements of the meta models
+	 * @param schemaName      The name of the schema used by all rules
+	 */
+	public FingerprintHandler(ResourceContentHandler packageElements, String schemaName) {
+		this(packageElements, schemaName, new FeatureFilter());
+	}
+
+	/**
+	 * Computes the fingerprints of all EClasses, EReferences and EDataTypes. The
+	 * fingerprints of the rule files cover only the features accepted by the
+	 * filter and change if the filter changes.
+	 *
+	 * @param packageElements The handler providing the elements of the meta models
+	 * @param schemaName      The name of the schema used by all rules
+	 * @param featureFilter   The filter selecting the translated features
+	 */
+	public FingerprintHandler(ResourceContentHandler packageElements, String schemaName,
+			FeatureFilter featureFilter) {
+		this.schemaName = schemaName;
+		this.featureFilter = featureFilter;
+		this.containers = new ConainerHandler(packageElements.getAllEClasses());
+		this.elements = new TreeMap<>();
+		this.files = new TreeMap<>();
+		for (final EDataType eDataType : packageElements.getAllEDataTypes()) {
+			this.elements.put(getId(eDataType), digest(eDataType));
+		}
+		for (final EClass eClass : packageElements.getAllEClasses()) {
+			this.elements.put(getId(eClass), digest(eClass));
+			for (final EReference eReference : eClass.getEReferences()) {
+				this.elements.put(getId(eReference), digest(eReference));
+			}
+		}
+		this.schemaElements = new TreeSet<>();
+		this.schemaElements.add(schemaName);
+		for (final EPackage ePackage : packageElements.getAllEPackages()) {
+			this.schemaElements.add(ePackage.eResource().getURI().toString());
+		}
+		for (final EClass eClass : packageElements.getAllEClasses()) {
+			this.schemaElements.add(getId(eClass));
+		}
+		for (final EDataType eDataType : packageElements.getAllEDataTypes()) {
+			this.schemaElements.add(getId(eDataType));
+		}
+		this.files.put(SCHEMA_KEY, hash(String.join("\n", this.schemaElements)));
+	}
+
+	/**
+	 * Registers the data types for which the schema defines equality conditions,
+	 * so that the schema is regenerated if the set of these types changes
+	 *
+	 * @param eDataTypes The data types
+	 */
+	public void addSchemaEqualityConditions(Collection<EDataType> eDataTypes) {
+		for (final EDataType eDataType : eDataTypes) {
+			this.schemaElements.add(EQUALITY_PREFIX + getId(eDataType));
+		}
+		this.files.put(SCHEMA_KEY, hash(String.join("\n", this.schemaElements)));
+	}
+
+	/**
+	 * Sets the lookup of the equality conditions used by the rules. The name of
+	 * the condition resolved for each attribute type is part of the fingerprints
+	 * of the rule files, so that the rules are regenerated if a condition moves
+	 * between the library and the schema.
+	 *
+	 * @param equalityConditions The lookup of the equality condition of a data
+	 *                           type, which returns null for unknown types
+	 */
+	public void setEqualityConditions(Function<EDataType, AttrCondDef> equalityConditions) {
+		this.equalityConditions = equalityConditions;
+	}
+
+	/**
+	 * Registers a rule file containing the rules of several EClasses and
+	 * EReferences. The fingerprint of the file covers the dependencies of all of
+	 * them, so the whole file is regenerated if one of them changes.
+	 *
+	 * @param fileName    The name of the generated file
+	 * @param eClasses    The EClasses translated by the rules in the file
+	 * @param eReferences The EReferences translated by the rules in the file
+	 */
+	public void addRuleFile(String fileName, Collection<EClass> eClasses, Collection<EReference> eReferences) {
+		final Set<String> dependencies = new TreeSet<>();
+		final Map<String, String> conditions = new TreeMap<>();
+		for (final EClass eClass : eClasses) {
+			dependencies.add(getId(eClass));
+			for (final EClass superType : eClass.getEAllSuperTypes()) {
+				dependencies.add(getId(superType));
+			}
+			for (final EAttribute eAttribute : this.featureFilter.filter(eClass.getEAllAttributes())) {
+				final EDataType eDataType = eAttribute.getEAttributeType();
+				dependencies.add(getId(eDataType));
+				if (this.equalityConditions != null) {
+					final AttrCondDef def = this.equalityConditions.apply(eDataType);
+					conditions.put(getId(eDataType), def == null ? "" : def.getName());
+				}
+			}
+			for (final EReference containment : this.containers.getAllContainerReferences(eClass)) {
+				dependencies.add(getId(containment));
+			}
+		}
+		for (final EReference eReference : eReferences) {
+			dependencies.add(getId(eReference));
+			dependencies.add(getId(eReference.getEContainingClass()));
+			dependencies.add(getId(eReference.getEReferenceType()));
+		}
+		this.files.put(RULE_PREFIX + fileName, hash(dependencies, conditions));
+	}
+
+	/**
+	 * Checks if the schema has to be regenerated
+	 *
+	 * @param previous The fingerprints of the previous generation
+	 * @return true, iff the schema changed
+	 */
+	public boolean isSchemaModified(Map<String, String> previous) {
+		return !this.files.get(SCHEMA_KEY).equals(previous.get(SCHEMA_KEY));
+	}
+
+	/**
+	 * Searches all rule files which are new or have to be regenerated
+	 *
+	 * @param previous The fingerprints of the previous generation
+	 * @return The names of the rule files
+	 */
+	public Set<String> getModifiedRuleFiles(Map<String, String> previous) {
+		final Set<String> modified = new HashSet<>();
+		for (final Entry<String, String> entry : this.files.entrySet()) {
+			final String key = entry.getKey();
+			if (key.startsWith(RULE_PREFIX) && !entry.getValue().equals(previous.get(key))) {
+				modified.add(key.substring(RULE_PREFIX.length()));
+			}
+		}
+		return modified;
+	}
+
+	/**
+	 * Searches all rule files of the previous generation which are not generated
+	 * anymore
+	 *
+	 * @param previous The fingerprints of the previous generation
+	 * @return The names of the rule files
+	 */
+	public Set<String> getRemovedRuleFiles(Map<String, String> previous) {
+		final Set<String> removed = new HashSet<>();
+		for (final String key : previous.keySet()) {
+			if (key.startsWith(RULE_PREFIX) && !this.files.containsKey(key)) {
+				removed.add(key.substring(RULE_PREFIX.length()));
+			}
+		}
+		return removed;
+	}
+
+	/**
+	 * Searches all EClasses, EReferences and EDataTypes which have been added,
+	 * changed or removed since the previous generation
+	 *
+	 * @param previous The fingerprints of the previous generation
+	 * @return The IDs of the elements
+	 */
+	public Set<String> getModifiedElements(Map<String, String> previous) {
+		final Set<String> modified = new TreeSet<>();
+		for (final Entry<String, String> entry : this.elements.entrySet()) {
+			if (!entry.getValue().equals(previous.get(ELEMENT_PREFIX + entry.getKey()))) {
+				modified.add(entry.getKey());
+			}
+		}
+		for (final String key : previous.keySet()) {
+			if (key.startsWith(ELEMENT_PREFIX) && !this.elements.containsKey(key.substring(ELEMENT_PREFIX.length()))) {
+				modified.add(key.substring(ELEMENT_PREFIX.length()));
+			}
+		}
+		return modified;
+	}
+
+	/**
+	 * Loads the fingerprints of a previous generation
+	 *
+	 * @param file The file containing the fingerprints
+	 * @return The fingerprints or an empty map if the file doesn't exist
+	 * @throws IOException If reading the file failed
+	 */
+	public static Map<String, String> load(Path file) throws IOException {
+		if (!Files.exists(file)) {
+			return Collections.emptyMap();
+		}
+		final Map<String, String> fingerprints = new TreeMap<>();
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				final int separator = line.indexOf('\t');
+				if (separator > 0) {
+					fingerprints.put(line.substring(separator + 1), line.substring(0, separator));
+				}
+			}
+		}
+		return fingerprints;
+	}
+
+	/**
+	 * Stores the fingerprints of this generation sorted by their keys
+	 *
+	 * @param file The file into which the fingerprints should be written
+	 * @throws IOException If writing the file failed
+	 */
+	public void store(Path file) throws IOException {
+		final Map<String, String> fingerprints = new TreeMap<>(this.files);
+		for (final Entry<String, String> entry : this.elements.entrySet()) {
+			fingerprints.put(ELEMENT_PREFIX + entry.getKey(), entry.getValue());
+		}
+		Files.createDirectories(file.getParent());
+		try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			for (final Entry<String, String> entry : fingerprints.entrySet()) {
+				writer.write(entry.getValue());
+				writer.write('\t');
+				writer.write(entry.getKey());
+				writer.newLine();
+			}
+		}
+	}
+
+	/**
+	 * Calculates the fingerprint of a rule file from the fingerprints of the
+	 * elements it depends on and the equality conditions it uses
+	 *
+	 * @param dependencies The IDs of the elements
+	 * @param conditions   The names of the equality conditions by the IDs of the
+	 *                     data types
+	 * @return The fingerprint
+	 */
+	private String hash(Set<String> dependencies, Map<String, String> conditions) {
+		final StringBuilder builder = new StringBuilder(this.schemaName);
+		builder.append('\n').append(this.featureFilter);
+		for (final String id : dependencies) {
+			builder.append('\n').append(id).append('=').append(this.elements.get(id));
+		}
+		for (final Entry<String, String> condition : conditions.entrySet()) {
+			builder.append('\n').append(EQUALITY_PREFIX).append(condition.getKey()).append('=')
+					.append(condition.getValue());
+		}
+		return hash(builder.toString());
+	}
+
+	/**
+	 * Describes the properties of an EClass which are relevant for the
+	 * generation
+	 *
+	 * @param eClass The EClass
+	 * @return The fingerprint
+	 */
+	private static String digest(EClass eClass) {
+		final StringBuilder builder = new StringBuilder(eClass.getName());
+		builder.append(eClass.isAbstract()).append(eClass.isInterface());
+		for (final EClass superType : eClass.getESuperTypes()) {
+			builder.append("\nextends ").append(getId(superType));
+		}
+		for (final EAttribute eAttribute : eClass.getEAttributes()) {
+			builder.append("\nattribute ").append(eAttribute.getName()).append(':')
+					.append(getId(eAttribute.getEAttributeType())).append(getFlags(eAttribute));
+		}
+		for (final EReference eReference : eClass.getEReferences()) {
+			builder.append("\nreference ").append(eReference.getName());
+		}
+		return hash(builder.toString());
+	}
+
+	/**
+	 * Describes the properties of an EReference which are relevant for the
+	 * generation
+	 *
+	 * @param eReference The EReference
+	 * @return The fingerprint
+	 */
+	private static String digest(EReference eReference) {
+		final StringBuilder builder = new StringBuilder(eReference.getName());
+		builder.append(':').append(getId(eReference.getEReferenceType()));
+		builder.append(eReference.isContainment()).append(eReference.isContainer()).append(getFlags(eReference));
+		final EReference opposite = eReference.getEOpposite();
+		if (opposite != null) {
+			builder.append("\nopposite ").append(opposite.getName());
+		}
+		return hash(builder.toString());
+	}
+
+	/**
+	 * Describes the properties of an EDataType which are relevant for the
+	 * generation
+	 *
+	 * @param eDataType The EDataType
+	 * @return The fingerprint
+	 */
+	private static String digest(EDataType eDataType) {
+		return hash(eDataType.getName() + ':' + eDataType.getInstanceClassName());
+	}
+
+	/**
+	 * @param feature A structural feature
+	 * @return The flags of the feature as string
+	 */
+	private static String getFlags(EStructuralFeature feature) {
+		return "" + feature.isDerived() + feature.isTransient() + feature.isVolatile();
+	}
+
+	/**
+	 * Creates an ID which is unique across all meta models
+	 *
+	 * @param eClassifier An EClass or EDataType
+	 * @return The ID
+	 */
+	public static String getId(EClassifier eClassifier) {
+		final EPackage ePackage = eClassifier.getEPackage();
+		final String nsURI = ePackage == null ? "" : ePackage.getNsURI();
+		return nsURI + '#' + eClassifier.getName();
+	}
+
+	/**
+	 * Creates an ID which is unique across all meta models
+	 *
+	 * @param eReference An EReference
+	 * @return The ID
+	 */
+	public static String getId(EReference eReference) {
+		return getId(eReference.getEContainingClass()) + '.' + eReference.getName();
+	}
+
+	/**
+	 * Calculates a hash value of the text
+	 *
+	 * @param text A text
+	 * @return The hash value as hex string
+	 */
+	private static String hash(String text) {
+		try {
+			final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			final byte[] bytes = digest.digest(text.getBytes(StandardCharsets.UTF_8));
+			return ContentManifest.toHex(bytes);
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
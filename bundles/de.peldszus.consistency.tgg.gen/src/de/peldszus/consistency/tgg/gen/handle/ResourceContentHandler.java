@@ -1,15 +1,20 @@
 package de.peldszus.consistency.tgg.gen.handle;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EClassifier;
 import org.eclipse.emf.ecore.EDataType;
@@ -24,6 +29,12 @@ import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.xtext.resource.XtextResourceSet;
 
+import de.peldszus.consistency.tgg.gen.GenerationMetrics;
+import de.peldszus.consistency.tgg.gen.GenerationMetrics.Phase;
+import de.peldszus.consistency.tgg.gen.GenerationScope;
+import de.peldszus.consistency.tgg.gen.GeneratorConfiguration;
+import de.peldszus.consistency.tgg.gen.MetamodelCache;
+
 /**
  * This class searches and stores all relevant elements from the EPackages
  *
@@ -38,6 +49,10 @@ public class ResourceContentHandler {
 	private final Set<EDataType> allEDataTypes;
 	private final XtextResourceSet resourceSet;
 	private final Map<EPackage, URI> uriMap;
+	private final Map<URI, EPackage> packageIndex;
+	private final Map<URI, EClass> resolvedClasses;
+	private final Map<URI, Resource> resolvedResources;
+	private final Map<URI, EClass> resolvedProxyClasses;
 
 	/**
 	 * Creates an new handler for a set of EPackages
@@ -45,27 +60,56 @@ public class ResourceContentHandler {
 	 * @param ePackages The EPackages which should be made accessible
 	 */
 	public ResourceContentHandler(Collection<EPackage> ePackages) {
+		this(ePackages, new GeneratorConfiguration());
+	}
+
+	/**
+	 * Creates an new handler for a set of EPackages, which uses the meta model
+	 * cache of the configuration and reports the durations of the package
+	 * resolution and element collection into its metrics
+	 *
+	 * @param ePackages     The EPackages which should be made accessible
+	 * @param configuration The configuration of the generation
+	 */
+	public ResourceContentHandler(Collection<EPackage> ePackages, GeneratorConfiguration configuration) {
+		final GenerationMetrics metrics = configuration.getMetrics();
+		long start = System.nanoTime();
 		this.uriMap = new HashMap<>();
-		this.allEPackages = new HashSet<>();
-		this.resourceSet = initResourceSet(ePackages);
-		this.allEClasses = new HashSet<>();
-		this.allEReferences = new HashSet<>();
-		this.allEDataTypes = new HashSet<>();
+		this.packageIndex = new HashMap<>();
+		this.resolvedClasses = new HashMap<>();
+		this.resolvedResources = new HashMap<>();
+		this.resolvedProxyClasses = new HashMap<>();
+		this.allEPackages = new LinkedHashSet<>();
+		this.resourceSet = initResourceSet(ePackages, configuration.getMetamodelCache());
+		metrics.record(Phase.PACKAGE_RESOLUTION, start);
+		start = System.nanoTime();
+		this.allEClasses = new LinkedHashSet<>();
+		this.allEReferences = new LinkedHashSet<>();
+		this.allEDataTypes = new LinkedHashSet<>();
 		initAllRelevantElements(this.allEPackages);
+		final GenerationScope scope = configuration.getScope();
+		if (scope != null) {
+			restrict(scope);
+		}
+		metrics.record(Phase.ELEMENT_COLLECTION, start);
 	}
 
 	/**
 	 * Initializes an XtextResourceSet
 	 *
 	 * @param ePackages The EPackages to add to the resource set
+	 * @param cache     The cache for loading the meta models or null
 	 *
 	 * @return The ResourceSet
 	 */
-	private XtextResourceSet initResourceSet(Collection<EPackage> ePackages) {
-		final Set<EPackage> allEPackagesTmp = getAllEPackages(ePackages);
+	private XtextResourceSet initResourceSet(Collection<EPackage> ePackages, MetamodelCache cache) {
+		final Set<EPackage> allEPackagesTmp = getAllEPackages(ePackages, cache);
 		final XtextResourceSet set = new XtextResourceSet();
+		if (cache != null) {
+			cache.install(set);
+		}
 		final Registry registry = set.getPackageRegistry();
-		final Set<URI> uris = new HashSet<>(allEPackagesTmp.size());
+		final Set<URI> uris = new TreeSet<>(Comparator.comparing(URI::toString));
 		for (final EPackage ePackage : allEPackagesTmp) {
 			final Resource eResource = ePackage.eResource();
 			final URI uri = eResource.getURI();
@@ -76,7 +120,6 @@ public class ResourceContentHandler {
 				registry.put(this.uriMap.get(ePackage).toString(), ePackage);
 			}
 		}
-		EcoreUtil.resolveAll(set);
 		for (final URI uri : uris) {
 			this.allEPackages.add((EPackage) set.getResource(uri, true).getContents().get(0));
 		}
@@ -120,42 +163,145 @@ public class ResourceContentHandler {
 	}
 
 	/**
-	 * Collects all used EPackages, EClasses and EReferences
+	 * Collects all used EPackages, EClasses and EReferences. The proxies are
+	 * resolved before the collection, so that the parallel collection only reads
+	 * the EPackages.
 	 *
 	 * @param ePackages The EPackages for which all used elements should be
 	 *                  collected
 	 */
 	private void initAllRelevantElements(Collection<EPackage> ePackages) {
-		ePackages.parallelStream().flatMap(ePackage -> ePackage.eContents().parallelStream()).forEach(eClassifier -> {
-			if (eClassifier instanceof EDataType) {
-				this.allEDataTypes.add((EDataType) eClassifier);
-			} else if (eClassifier instanceof EClass) {
-				final EClass eClass = (EClass) eClassifier;
-				this.allEClasses.add(eClass);
-				final EList<EReference> eReferences = eClass.getEReferences();
-				for (final EReference eReference : eReferences) {
-					final EClass eType = eReference.getEReferenceType();
-					if (eType.eIsProxy()) {
-						eReference.setEType(resolveProxyClass(eType));
+		final List<EPackage> sorted = new ArrayList<>(ePackages);
+		sorted.sort(Comparator.comparing(ResourceContentHandler::getSortKey));
+		for (final EPackage ePackage : sorted) {
+			resolveProxies(ePackage);
+		}
+		final List<PackageElements> collected = sorted.parallelStream().map(PackageElements::new)
+				.collect(Collectors.toList());
+		for (final PackageElements elements : collected) {
+			this.allEDataTypes.addAll(elements.eDataTypes);
+			this.allEClasses.addAll(elements.eClasses);
+			this.allEReferences.addAll(elements.eReferences);
+		}
+	}
+
+	/**
+	 * Replaces the proxy types of the references of the EPackage by the resolved
+	 * classes. As the resolution modifies the resource set, it must not be called
+	 * concurrently.
+	 *
+	 * @param ePackage An EPackage
+	 */
+	private void resolveProxies(EPackage ePackage) {
+		for (final EClassifier eClassifier : ePackage.getEClassifiers()) {
+			if (eClassifier instanceof EClass) {
+				for (final EReference eReference : ((EClass) eClassifier).getEReferences()) {
+					final Object eType = eReference.eGet(EcorePackage.Literals.ETYPED_ELEMENT__ETYPE, false);
+					if (eType instanceof EClass && ((EClass) eType).eIsProxy()) {
+						eReference.setEType(resolveProxyClass((EClass) eType));
 					}
 				}
-				this.allEReferences.addAll(eReferences);
 			}
-		});
+		}
 	}
 
 	/**
-	 * Resolves the proxy class
+	 * Removes all elements outside of the slice defined by the scope. Only
+	 * references between classes of the slice, data types used by their
+	 * attributes and the EPackages containing these elements are kept.
+	 *
+	 * @param scope The scope of the generation
+	 */
+	private void restrict(GenerationScope scope) {
+		final Set<EClass> slice = scope.apply(this.allEClasses);
+		this.allEClasses.retainAll(slice);
+		this.allEReferences.removeIf(eReference -> !slice.contains(eReference.getEContainingClass())
+				|| !slice.contains(eReference.getEReferenceType()));
+		final Set<EDataType> used = new HashSet<>();
+		for (final EClass eClass : slice) {
+			for (final EAttribute eAttribute : eClass.getEAllAttributes()) {
+				used.add(eAttribute.getEAttributeType());
+			}
+		}
+		this.allEDataTypes.retainAll(used);
+		final Set<EPackage> usedPackages = new HashSet<>();
+		for (final EClass eClass : this.allEClasses) {
+			usedPackages.add(eClass.getEPackage());
+		}
+		for (final EDataType eDataType : this.allEDataTypes) {
+			usedPackages.add(eDataType.getEPackage());
+		}
+		this.allEPackages.retainAll(usedPackages);
+	}
+
+	/**
+	 * @param ePackage An EPackage
+	 * @return A key for ordering EPackages independent of the order of their
+	 *         discovery
+	 */
+	private static String getSortKey(EPackage ePackage) {
+		final Resource resource = ePackage.eResource();
+		return ePackage.getNsURI() + ' ' + (resource == null ? "" : resource.getURI().toString());
+	}
+
+	/**
+	 * The elements of a single EPackage, which are collected without resolving
+	 * proxies or modifying shared state
+	 */
+	private static final class PackageElements {
+		private final List<EDataType> eDataTypes = new ArrayList<>();
+		private final List<EClass> eClasses = new ArrayList<>();
+		private final List<EReference> eReferences = new ArrayList<>();
+
+		/**
+		 * Collects the elements in the order of the contents of the EPackage
+		 *
+		 * @param ePackage The EPackage
+		 */
+		private PackageElements(EPackage ePackage) {
+			for (final EObject eClassifier : ePackage.eContents()) {
+				if (eClassifier instanceof EDataType) {
+					this.eDataTypes.add((EDataType) eClassifier);
+				} else if (eClassifier instanceof EClass) {
+					final EClass eClass = (EClass) eClassifier;
+					this.eClasses.add(eClass);
+					this.eReferences.addAll(eClass.getEReferences());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Resolves the proxy class, the results are cached by the proxy URI. As the
+	 * resolution modifies the resource set, it must not be called concurrently.
 	 *
 	 * @param proxy A proxy
 	 * @return The resolved class or the proxy if the resolve wasn't successful
 	 */
 	private EClass resolveProxyClass(EClass proxy) {
+		final URI proxyURI = ((BasicEObjectImpl) proxy).eProxyURI();
+		final EClass cached = this.resolvedProxyClasses.get(proxyURI);
+		if (cached != null) {
+			return cached;
+		}
+		final EClass resolved = resolveProxyClassUncached(proxy);
+		this.resolvedProxyClasses.put(proxyURI, resolved);
+		return resolved;
+	}
+
+	/**
+	 * Resolves the proxy class in the resource of its URI
+	 *
+	 * @param proxy A proxy
+	 * @return The resolved class or the proxy if the resolve wasn't successful
+	 */
+	private EClass resolveProxyClassUncached(EClass proxy) {
 		URI uri = ((BasicEObjectImpl) proxy).eProxyURI();
 		if (uri.hasFragment()) {
 			uri = uri.trimFragment();
 		}
-		final Resource resource = this.resourceSet.getResource(uri, true);
+		final Resource resource = this.resolvedResources.computeIfAbsent(uri,
+				key -> this.resourceSet.getResource(key, true));
 		proxy = (EClass) EcoreUtil.resolve(proxy, resource);
 		if (proxy.eIsProxy()) {
 			final EPackage eResolvedPackage = (EPackage) resource.getContents().get(0);
@@ -178,27 +324,40 @@ public class ResourceContentHandler {
 	}
 
 	/**
-	 * Get all EPackages including the initial EPackages
+	 * Get all EPackages including the initial EPackages. The package closure is
+	 * resolved by the cache if available.
 	 *
 	 * @param ePackages A set of EPackages
+	 * @param cache     The cache used for loading the meta models or null
 	 * @return The initial EPackages and the referenced ones
 	 */
-	private Set<EPackage> getAllEPackages(Collection<EPackage> ePackages) {
+	private Set<EPackage> getAllEPackages(Collection<EPackage> ePackages, MetamodelCache cache) {
+		if (cache == null) {
+			for (final EPackage ePackage : ePackages) {
+				EcoreUtil.resolveAll(ePackage);
+			}
+		} else {
+			final Set<Resource> resources = new LinkedHashSet<>();
+			for (final EPackage ePackage : ePackages) {
+				resources.add(ePackage.eResource());
+			}
+			cache.resolveAll(resources);
+		}
 		final Set<EPackage> packages = new HashSet<>(ePackages);
 		for (final EPackage ePackage : ePackages) {
-			EcoreUtil.resolveAll(ePackage);
-			this.uriMap.put(ePackage, ePackage.eResource().getURI());
-			final Set<EPackage> newPackages = ePackage.getEClassifiers().parallelStream()
-					.filter(eClassifier -> eClassifier instanceof EClass)
-					.flatMap(eClass -> getAllEPackages(ePackage, (EClass)eClass).parallelStream())
-					.collect(Collectors.toSet());
-			packages.addAll(newPackages);
+			register(ePackage, ePackage.eResource().getURI());
+			for (final EClassifier eClassifier : ePackage.getEClassifiers()) {
+				if (eClassifier instanceof EClass) {
+					packages.addAll(getAllEPackages(ePackage, (EClass) eClassifier));
+				}
+			}
 		}
 		return packages;
 	}
 
 	/**
-	 * Gets all EPackages referenced by the class
+	 * Gets all EPackages referenced by the class. As the proxies of the references
+	 * are resolved and replaced, it must not be called concurrently.
 	 *
 	 * @param ePackage The EPackage containing the class
 	 * @param eClassifier The class
@@ -210,7 +369,7 @@ public class ResourceContentHandler {
 			final EClass trgEClass = eReference.getEReferenceType();
 			if (trgEClass.eIsProxy()) {
 				final EPackage resolvedEPackage = resolveEPackage(ePackage, trgEClass);
-				eReference.setEType((EClassifier) EcoreUtil.resolve(trgEClass, resolvedEPackage));
+				eReference.setEType(resolveClass(trgEClass, resolvedEPackage));
 				ePackages.add(resolvedEPackage);
 			} else {
 				final EPackage trgEPackage = trgEClass.getEPackage();
@@ -223,7 +382,8 @@ public class ResourceContentHandler {
 	}
 
 	/**
-	 * Resolves an proxy based on a known EPackage
+	 * Resolves an proxy based on a known EPackage. The EPackages are looked up by
+	 * the URI of the proxy without its fragment, each URI is loaded only once.
 	 *
 	 * @param knownPackage A known EPackage
 	 * @param proxy        The proxy
@@ -234,11 +394,9 @@ public class ResourceContentHandler {
 		if (uri.hasFragment()) {
 			uri = uri.trimFragment();
 		}
-		final URI value = uri;
-		final Optional<EPackage> result = this.uriMap.entrySet().parallelStream()
-				.filter(entry -> entry.getValue().equals(value)).map(entry -> entry.getKey()).findAny();
-		if (result.isPresent()) {
-			return result.get();
+		final EPackage indexed = this.packageIndex.get(uri);
+		if (indexed != null) {
+			return indexed;
 		}
 		final ResourceSet localResourceSet = knownPackage.eResource().getResourceSet();
 		Resource unresolvedResource = localResourceSet.getResource(uri, true);
@@ -252,10 +410,35 @@ public class ResourceContentHandler {
 			}
 		}
 		final EPackage eResolvedPackage = (EPackage) contents.get(0);
-		this.uriMap.put(eResolvedPackage, uri);
+		register(eResolvedPackage, uri);
 		return eResolvedPackage;
 	}
 
+	/**
+	 * Resolves a proxy class in the given EPackage, the results are cached by the
+	 * URI of the proxy
+	 *
+	 * @param proxy    The proxy
+	 * @param ePackage The EPackage containing the resolved proxy
+	 * @return The resolved class or the proxy if the resolve wasn't successful
+	 */
+	private EClass resolveClass(final EClass proxy, final EPackage ePackage) {
+		final URI uri = ((BasicEObjectImpl) proxy).eProxyURI();
+		return this.resolvedClasses.computeIfAbsent(uri, key -> (EClass) EcoreUtil.resolve(proxy, ePackage));
+	}
+
+	/**
+	 * Stores the URI from which the EPackage has been loaded and adds the EPackage
+	 * to the reverse index
+	 *
+	 * @param ePackage The EPackage
+	 * @param uri      The URI
+	 */
+	private void register(final EPackage ePackage, final URI uri) {
+		this.uriMap.put(ePackage, uri);
+		this.packageIndex.putIfAbsent(uri, ePackage);
+	}
+
 	/**
 	 * A getter for the xtext resource set
 	 *
@@ -0,0 +1,42 @@
+package de.peldszus.consistency.tgg.gen.benchmarks;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Collection;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Executes the JMH benchmarks inside of the OSGi runtime of the test. The sizes
+ * of the synthetic meta models are taken from the system properties
+ * "benchmark.classes", "benchmark.depth", "benchmark.references" and
+ * "benchmark.attributes", each accepting a comma separated list of values.
+ *
+ * @author speldszus
+ *
+ */
+public class BenchmarkTest {
+
+	private static final String[] PARAMETERS = { "classes", "depth", "references", "attributes" };
+
+	@Test
+	public void runBenchmarks() throws RunnerException {
+		final ChainedOptionsBuilder options = new OptionsBuilder().include(GeneratorBenchmark.class.getName())
+				.forks(0).shouldFailOnError(true).resultFormat(ResultFormatType.JSON)
+				.result(System.getProperty("benchmark.result", "target/jmh-result.json"));
+		for (final String parameter : PARAMETERS) {
+			final String values = System.getProperty("benchmark." + parameter);
+			if (values != null && !values.trim().isEmpty()) {
+				options.param(parameter, values.split(","));
+			}
+		}
+		final Collection<RunResult> results = new Runner(options.build()).run();
+		assertFalse(results.isEmpty(), "No benchmark has been executed");
+	}
+}
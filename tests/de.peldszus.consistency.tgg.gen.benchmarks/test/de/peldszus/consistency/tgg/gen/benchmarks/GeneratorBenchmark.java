@@ -0,0 +1,204 @@
+package de.peldszus.consistency.tgg.gen.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.gravity.eclipse.importer.DuplicateProjectNameException;
+import org.gravity.eclipse.util.EclipseProjectUtil;
+import org.moflon.tgg.mosl.tgg.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.peldszus.consistency.tgg.gen.EmissionMode;
+import de.peldszus.consistency.tgg.gen.RuleGrouping;
+import de.peldszus.consistency.tgg.gen.create.EclipseProjectCreator;
+import de.peldszus.consistency.tgg.gen.create.RuleCreator;
+import de.peldszus.consistency.tgg.gen.create.RuleGroup;
+import de.peldszus.consistency.tgg.gen.create.RuleGrouper;
+import de.peldszus.consistency.tgg.gen.create.SchemaCreator;
+import de.peldszus.consistency.tgg.gen.handle.ConainerHandler;
+import de.peldszus.consistency.tgg.gen.handle.CorrespondenceHandler;
+import de.peldszus.consistency.tgg.gen.handle.ResourceContentHandler;
+import de.peldszus.consistency.tgg.gen.tests.SyntheticMetamodels;
+
+/**
+ * Benchmarks for the single steps of the generator on synthetic meta models
+ *
+ * @author speldszus
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(0)
+public class GeneratorBenchmark {
+
+	private static final String PROJECT_NAME = "BenchmarkTGG";
+
+	/**
+	 * The number of EClasses in the meta model
+	 */
+	@Param("1000")
+	public int classes;
+
+	/**
+	 * The maximal depth of the inheritance hierarchies
+	 */
+	@Param("4")
+	public int depth;
+
+	/**
+	 * The number of EReferences of each EClass
+	 */
+	@Param("2")
+	public int references;
+
+	/**
+	 * The number of EAttributes of each EClass
+	 */
+	@Param("3")
+	public int attributes;
+
+	private EPackage ePackage;
+	private IProject project;
+
+	private ResourceContentHandler packageElements;
+	private CorrespondenceHandler correspondences;
+	private ConainerHandler containers;
+	private EclipseProjectCreator projectCreator;
+	private Schema schema;
+	private List<EClass> concreteEClasses;
+	private int resources;
+
+	/**
+	 * Creates the meta model and the TGG project used by all iterations
+	 *
+	 * @throws CoreException If the project couldn't be created
+	 * @throws IOException If the attribute conditions couldn't be loaded
+	 * @throws DuplicateProjectNameException If the project already exists
+	 */
+	@Setup(Level.Trial)
+	public void createMetamodel() throws CoreException, IOException, DuplicateProjectNameException {
+		this.ePackage = SyntheticMetamodels.create("Benchmark", this.classes, this.depth, this.references,
+				this.attributes);
+		final NullProgressMonitor monitor = new NullProgressMonitor();
+		final IProject existing = EclipseProjectUtil.getProjectByName(PROJECT_NAME);
+		if (existing.exists()) {
+			existing.delete(true, monitor);
+		}
+		this.project = new EclipseProjectCreator(new XtextResourceSet()).createTGGProject(PROJECT_NAME, monitor);
+	}
+
+	/**
+	 * Initializes the handlers and the schema on a fresh resource set
+	 *
+	 * @throws CoreException If the project cannot be accessed
+	 * @throws IOException If the schema couldn't be stored
+	 */
+	@Setup(Level.Iteration)
+	public void prepare() throws CoreException, IOException {
+		this.packageElements = new ResourceContentHandler(Collections.singleton(this.ePackage));
+		this.correspondences = new CorrespondenceHandler(this.packageElements.getAllEClasses());
+		this.containers = new ConainerHandler(this.packageElements.getAllEClasses());
+		this.projectCreator = new EclipseProjectCreator(this.packageElements.getResourceSet());
+		this.projectCreator.openTGGProject(this.project);
+		this.schema = createSchema();
+		this.projectCreator.addMoreAttrConds(this.schema.getAttributeCondDefs());
+		this.concreteEClasses = new ArrayList<>();
+		for (final EClass eClass : this.packageElements.getAllEClasses()) {
+			if (!eClass.isAbstract() && !eClass.isInterface()) {
+				this.concreteEClasses.add(eClass);
+			}
+		}
+		this.resources = this.packageElements.getResourceSet().getResources().size();
+	}
+
+	/**
+	 * Removes the resources created by an invocation from the resource set
+	 */
+	@TearDown(Level.Invocation)
+	public void clean() {
+		final List<Resource> created = this.packageElements.getResourceSet().getResources();
+		while (created.size() > this.resources) {
+			created.remove(created.size() - 1);
+		}
+	}
+
+	/**
+	 * Deletes the TGG project
+	 *
+	 * @throws CoreException If the project couldn't be deleted
+	 */
+	@TearDown(Level.Trial)
+	public void deleteProject() throws CoreException {
+		this.project.delete(true, new NullProgressMonitor());
+	}
+
+	@Benchmark
+	public ResourceContentHandler resourceContentHandler() {
+		return new ResourceContentHandler(Collections.singleton(this.ePackage));
+	}
+
+	@Benchmark
+	public CorrespondenceHandler correspondenceHandler() {
+		return new CorrespondenceHandler(this.packageElements.getAllEClasses());
+	}
+
+	@Benchmark
+	public void containerReferences(Blackhole blackhole) {
+		for (final EClass eClass : this.packageElements.getAllEClasses()) {
+			blackhole.consume(this.containers.getAllContainerReferences(eClass));
+		}
+	}
+
+	@Benchmark
+	public Schema schemaCreator() throws IOException {
+		return createSchema();
+	}
+
+	@Benchmark
+	public void ruleCreator() throws IOException {
+		final RuleCreator ruleCreator = new RuleCreator(this.packageElements, this.correspondences,
+				this.projectCreator, EmissionMode.PER_FILE);
+		final List<RuleGroup> groups = new RuleGrouper(RuleGrouping.PER_RULE, 1, this.containers)
+				.group(this.concreteEClasses, Collections.emptyList());
+		ruleCreator.createRuleFiles(groups, this.schema, 1);
+	}
+
+	/**
+	 * Creates and saves the schema for the meta model
+	 *
+	 * @return The schema
+	 * @throws IOException If the schema couldn't be stored
+	 */
+	private Schema createSchema() throws IOException {
+		return new SchemaCreator(this.project, this.packageElements.getResourceSet()).createSchema(PROJECT_NAME,
+				this.packageElements.getAllEPackages(), this.packageElements.getAllEDataTypes(),
+				new HashSet<>(this.correspondences.allCorrespondences()));
+	}
+}
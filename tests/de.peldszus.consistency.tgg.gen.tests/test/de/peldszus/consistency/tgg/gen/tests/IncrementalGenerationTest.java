@@ -0,0 +1,150 @@
+package de.peldszus.consistency.tgg.gen.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import org.apache.log4j.Logger;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.peldszus.consistency.tgg.gen.TGGGenerator;
+import de.peldszus.consistency.tgg.gen.create.RuleCreator;
+import de.peldszus.consistency.tgg.gen.create.TGGLocation;
+
+/**
+ * Checks that a repeated generation into the same folder only rewrites the rule
+ * files affected by changes of the meta model
+ *
+ * @author speldszus
+ *
+ */
+public class IncrementalGenerationTest {
+
+	private static final Logger LOGGER = Logger.getLogger(IncrementalGenerationTest.class);
+
+	private static final String NAME = "Incremental";
+
+	private static final FileTime UNCHANGED = FileTime.fromMillis(0);
+
+	private Path output;
+
+	@BeforeEach
+	public void createOutput() throws IOException {
+		this.output = Files.createTempDirectory("incremental");
+	}
+
+	@Test
+	public void testIncrementalGeneration() throws IOException {
+		final List<EPackage> ePackages = SyntheticMetamodels.create(NAME, 1, 40, 4, 2, 1, 2);
+		final EPackage ePackage = ePackages.get(0);
+		final TGGGenerator generator = new TGGGenerator();
+		generator.generate(ePackages, NAME, this.output, null, new NullProgressMonitor());
+		final Path rules = this.output.resolve(TGGLocation.RULES_FOLDER);
+		markUnchanged(rules);
+
+		// Class5 is concrete and extended by Class6 and Class7
+		final EClass changed = (EClass) ePackage.getEClassifier(NAME + "Class5");
+		final EAttribute eAttribute = EcoreFactory.eINSTANCE.createEAttribute();
+		eAttribute.setName("added");
+		eAttribute.setEType(changed.getEAttributes().get(0).getEType());
+		changed.getEStructuralFeatures().add(eAttribute);
+		final Set<String> expected = new TreeSet<>();
+		for (final EClassifier eClassifier : ePackage.getEClassifiers()) {
+			if (eClassifier instanceof EClass) {
+				final EClass eClass = (EClass) eClassifier;
+				if (!eClass.isAbstract() && (eClass == changed || eClass.getEAllSuperTypes().contains(changed))) {
+					expected.add(getFileName(RuleCreator.getRuleFileName(eClass)));
+				}
+			}
+		}
+
+		final EClass owner = (EClass) ePackage.getEClassifier(NAME + "Class10");
+		final EReference removed = owner.getEReferences().get(1);
+		assertFalse(removed.isContainment());
+		final Path removedFile = rules.resolve(getFileName(RuleCreator.getLinkRuleName(removed)));
+		assertTrue(Files.exists(removedFile), "The link rule hasn't been generated");
+		owner.getEStructuralFeatures().remove(removed);
+
+		final EClass unchanged = (EClass) ePackage.getEClassifier(NAME + "Class21");
+		final String deleted = getFileName(RuleCreator.getRuleFileName(unchanged));
+		Files.delete(rules.resolve(deleted));
+		expected.add(deleted);
+
+		generator.generate(ePackages, NAME, this.output, null, new NullProgressMonitor());
+
+		assertFalse(Files.exists(removedFile), "The rule file of the removed reference hasn't been deleted");
+		assertEquals(expected, getRewrittenFiles(rules));
+	}
+
+	/**
+	 * @param name The name of a rule file without the file extension
+	 * @return The name of the file
+	 */
+	private static String getFileName(String name) {
+		return name + ".tgg";
+	}
+
+	/**
+	 * Sets the modification time of all rule files to {@link #UNCHANGED}
+	 *
+	 * @param rules The folder containing the rule files
+	 * @throws IOException If the folder couldn't be listed
+	 */
+	private static void markUnchanged(Path rules) throws IOException {
+		try (Stream<Path> stream = Files.list(rules)) {
+			for (final Path file : (Iterable<Path>) stream::iterator) {
+				Files.setLastModifiedTime(file, UNCHANGED);
+			}
+		}
+	}
+
+	/**
+	 * @param rules The folder containing the rule files
+	 * @return The names of the rule files written since
+	 *         {@link #markUnchanged(Path)}
+	 * @throws IOException If the folder couldn't be listed
+	 */
+	private static Set<String> getRewrittenFiles(Path rules) throws IOException {
+		final Set<String> rewritten = new TreeSet<>();
+		try (Stream<Path> stream = Files.list(rules)) {
+			for (final Path file : (Iterable<Path>) stream::iterator) {
+				if (!UNCHANGED.equals(Files.getLastModifiedTime(file))) {
+					rewritten.add(file.getFileName().toString());
+				}
+			}
+		}
+		return rewritten;
+	}
+
+	@AfterEach
+	public void clean() throws IOException {
+		try (Stream<Path> stream = Files.walk(this.output)) {
+			stream.sorted(Comparator.reverseOrder()).forEach(path -> {
+				try {
+					Files.delete(path);
+				} catch (final IOException e) {
+					LOGGER.error(e);
+				}
+			});
+		}
+	}
+}
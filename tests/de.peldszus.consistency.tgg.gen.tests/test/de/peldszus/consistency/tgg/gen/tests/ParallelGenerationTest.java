@@ -0,0 +1,105 @@
+package de.peldszus.consistency.tgg.gen.tests;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.log4j.Logger;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.emf.ecore.EPackage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import de.peldszus.consistency.tgg.gen.EmissionMode;
+import de.peldszus.consistency.tgg.gen.GeneratorConfiguration;
+import de.peldszus.consistency.tgg.gen.TGGGenerator;
+
+/**
+ * Checks that the files generated by several worker threads are byte-identical
+ * to the files generated by a single thread
+ *
+ * @author speldszus
+ *
+ */
+public class ParallelGenerationTest {
+
+	private static final Logger LOGGER = Logger.getLogger(ParallelGenerationTest.class);
+
+	private static final int PARALLELISM = 4;
+
+	private Path output;
+
+	@BeforeEach
+	public void createOutput() throws IOException {
+		this.output = Files.createTempDirectory("parallel");
+	}
+
+	@ParameterizedTest
+	@EnumSource(EmissionMode.class)
+	public void testSerialEquivalence(EmissionMode emissionMode) throws IOException {
+		for (final boolean textEmission : new boolean[] { true, false }) {
+			final Path serial = generate(emissionMode, textEmission, 1);
+			final Path parallel = generate(emissionMode, textEmission, PARALLELISM);
+
+			final List<Path> files = listFiles(serial);
+			assertFalse(files.isEmpty(), "No files have been generated");
+			assertEquals(files, listFiles(parallel));
+			for (final Path file : files) {
+				assertArrayEquals(Files.readAllBytes(serial.resolve(file)), Files.readAllBytes(parallel.resolve(file)),
+						"The file generated in parallel differs: " + file);
+			}
+		}
+	}
+
+	/**
+	 * Generates a TGG for a synthetic meta model
+	 *
+	 * @param emissionMode The mode in which the rule files are saved
+	 * @param textEmission If the text emitter should be used
+	 * @param parallelism  The number of worker threads
+	 * @return The folder containing the TGG
+	 * @throws IOException If the generation failed
+	 */
+	private Path generate(EmissionMode emissionMode, boolean textEmission, int parallelism) throws IOException {
+		final List<EPackage> ePackages = SyntheticMetamodels.create("Parallel", 2, 200, 4, 3, 2, 3);
+		final Path folder = this.output.resolve(emissionMode + "-" + textEmission + "-" + parallelism);
+		final GeneratorConfiguration configuration = new GeneratorConfiguration().setEmissionMode(emissionMode)
+				.setTextEmission(textEmission).setParallelism(parallelism);
+		new TGGGenerator(configuration).generate(ePackages, "Parallel", folder, null, new NullProgressMonitor());
+		return folder;
+	}
+
+	/**
+	 * @param folder The folder of a generated TGG
+	 * @return The sorted paths of all files relative to the folder
+	 * @throws IOException If the folder couldn't be listed
+	 */
+	private static List<Path> listFiles(Path folder) throws IOException {
+		try (Stream<Path> stream = Files.walk(folder)) {
+			return stream.filter(Files::isRegularFile).map(folder::relativize).sorted().collect(Collectors.toList());
+		}
+	}
+
+	@AfterEach
+	public void clean() throws IOException {
+		try (Stream<Path> stream = Files.walk(this.output)) {
+			stream.sorted(Comparator.reverseOrder()).forEach(path -> {
+				try {
+					Files.delete(path);
+				} catch (final IOException e) {
+					LOGGER.error(e);
+				}
+			});
+		}
+	}
+}
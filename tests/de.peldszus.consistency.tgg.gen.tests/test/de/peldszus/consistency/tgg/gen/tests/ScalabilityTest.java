@@ -0,0 +1,255 @@
+package de.peldszus.consistency.tgg.gen.tests;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import org.apache.log4j.Logger;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.emf.ecore.EPackage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.peldszus.consistency.tgg.gen.GeneratorConfiguration;
+import de.peldszus.consistency.tgg.gen.TGGGenerator;
+
+/**
+ * Generates TGGs for synthetic meta models of increasing sizes and checks that
+ * the generation time, the peak heap usage and the number of written files grow
+ * at most as fast as recorded in the checked-in baseline
+ * "data/scalability-baseline.properties". The growth is measured as the
+ * exponent of a power law fitted to the measurements, i.e. 1 for linear and 2
+ * for quadratic growth. The measurements only run if the sizes are given with
+ * the system property "scalability.classes", e.g. by the maven profile
+ * "scalability", and are written to "target/scalability-result.csv". Otherwise,
+ * only a small meta model is generated.
+ *
+ * @author speldszus
+ *
+ */
+public class ScalabilityTest {
+
+	private static final Logger LOGGER = Logger.getLogger(ScalabilityTest.class);
+
+	private static final String BASELINE = "data/scalability-baseline.properties";
+	private static final String SIZES_PROPERTY = "scalability.classes";
+	private static final int SMOKE_SIZE = 100;
+	private static final String[] METRICS = { "time", "heap", "files" };
+
+	private static final int PACKAGES = 4;
+	private static final int DEPTH = 8;
+	private static final int REFERENCES = 4;
+	private static final int CONTAINMENTS = 2;
+	private static final int ATTRIBUTES = 3;
+
+	private Path output;
+
+	@BeforeEach
+	public void createOutput() throws IOException {
+		this.output = Files.createTempDirectory("scalability");
+	}
+
+	@Test
+	public void testSmoke() throws IOException {
+		final double[] measurement = generate(SMOKE_SIZE, "Smoke");
+		assertTrue(measurement[2] > 1, "No rule files have been generated");
+	}
+
+	@Test
+	public void testScalability() throws IOException {
+		final String property = System.getProperty(SIZES_PROPERTY);
+		assumeTrue(property != null, "The sizes of the meta models are not configured");
+		final Properties baseline = loadBaseline();
+		final List<Integer> sizes = new ArrayList<>();
+		for (final String size : property.split(",")) {
+			sizes.add(Integer.valueOf(size.trim()));
+		}
+		sizes.sort(Comparator.naturalOrder());
+
+		// Warm up the JIT compiler with the smallest size
+		generate(sizes.get(0), "Warmup");
+
+		final double[][] measurements = new double[METRICS.length][sizes.size()];
+		final double[] classes = new double[sizes.size()];
+		final StringBuilder report = new StringBuilder("classes,time,heap,files\n");
+		for (int i = 0; i < sizes.size(); i++) {
+			final int size = sizes.get(i);
+			final double[] measurement = generate(size, "Scalability" + size);
+			classes[i] = size;
+			for (int m = 0; m < METRICS.length; m++) {
+				measurements[m][i] = measurement[m];
+			}
+			report.append(size).append(',').append((long) measurement[0]).append(',').append((long) measurement[1])
+					.append(',').append((long) measurement[2]).append('\n');
+			LOGGER.info("Generated TGG for " + size + " classes in " + (long) measurement[0] + "ms using "
+					+ (long) measurement[1] + "KB heap and " + (long) measurement[2] + " files");
+		}
+		writeReport(report.toString());
+
+		if (sizes.size() < 2) {
+			return;
+		}
+		final double tolerance = Double.parseDouble(baseline.getProperty("tolerance"));
+		for (int m = 0; m < METRICS.length; m++) {
+			final double exponent = fitExponent(classes, measurements[m]);
+			final double expected = Double.parseDouble(baseline.getProperty(METRICS[m] + ".exponent"));
+			LOGGER.info("Growth exponent of " + METRICS[m] + ": " + exponent + " (baseline " + expected + ")");
+			assertTrue(exponent <= expected + tolerance, "The " + METRICS[m] + " grows with an exponent of "
+					+ exponent + " but the baseline is " + expected);
+		}
+	}
+
+	/**
+	 * Generates a TGG for a synthetic meta model
+	 *
+	 * @param classes The number of EClasses of the meta model
+	 * @param name    The name of the TGG
+	 * @return The duration in milliseconds, the peak heap usage in KB and the
+	 *         number of written files
+	 * @throws IOException If the generation failed
+	 */
+	private double[] generate(int classes, String name) throws IOException {
+		final List<EPackage> ePackages = SyntheticMetamodels.create(name, PACKAGES, classes, DEPTH, REFERENCES,
+				CONTAINMENTS, ATTRIBUTES);
+		final Path folder = this.output.resolve(name);
+		System.gc();
+		final long before = getHeapUsage();
+		resetPeakHeapUsage();
+		final long start = System.nanoTime();
+		new TGGGenerator(new GeneratorConfiguration()).generate(ePackages, name, folder, null,
+				new NullProgressMonitor());
+		final long duration = (System.nanoTime() - start) / 1_000_000L;
+		final long heap = Math.max(1, getPeakHeapUsage() - before) / 1024;
+		final long files;
+		try (Stream<Path> stream = Files.walk(folder)) {
+			files = stream.filter(Files::isRegularFile).count();
+		}
+		return new double[] { Math.max(1, duration), Math.max(1, heap), Math.max(1, files) };
+	}
+
+	/**
+	 * Fits a power law to the measurements with a least squares regression in
+	 * log-log space
+	 *
+	 * @param sizes  The sizes of the meta models
+	 * @param values The measured values
+	 * @return The exponent of the power law
+	 */
+	private static double fitExponent(double[] sizes, double[] values) {
+		final int n = sizes.length;
+		double sumX = 0;
+		double sumY = 0;
+		double sumXY = 0;
+		double sumXX = 0;
+		for (int i = 0; i < n; i++) {
+			final double x = Math.log(sizes[i]);
+			final double y = Math.log(values[i]);
+			sumX += x;
+			sumY += y;
+			sumXY += x * y;
+			sumXX += x * x;
+		}
+		return (n * sumXY - sumX * sumY) / (n * sumXX - sumX * sumX);
+	}
+
+	/**
+	 * @return The used heap of all heap memory pools in bytes
+	 */
+	private static long getHeapUsage() {
+		long used = 0;
+		for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				used += pool.getUsage().getUsed();
+			}
+		}
+		return used;
+	}
+
+	/**
+	 * @return The peak usage of all heap memory pools in bytes
+	 */
+	private static long getPeakHeapUsage() {
+		long peak = 0;
+		for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				peak += pool.getPeakUsage().getUsed();
+			}
+		}
+		return peak;
+	}
+
+	/**
+	 * Resets the peak usage of all heap memory pools
+	 */
+	private static void resetPeakHeapUsage() {
+		for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				pool.resetPeakUsage();
+			}
+		}
+	}
+
+	/**
+	 * Loads the checked-in baseline from the test bundle
+	 *
+	 * @return The baseline
+	 * @throws IOException If the baseline couldn't be read
+	 */
+	private static Properties loadBaseline() throws IOException {
+		final Properties baseline = new Properties();
+		try (InputStream in = Platform.getBundle(Activator.PLUGIN_ID).getEntry(BASELINE).openStream()) {
+			baseline.load(in);
+		}
+		for (final String metric : METRICS) {
+			assertTrue(baseline.containsKey(metric + ".exponent"), "Missing baseline for " + metric);
+		}
+		return baseline;
+	}
+
+	/**
+	 * Writes the measurements into the target folder
+	 *
+	 * @param report The measurements as CSV
+	 * @throws IOException If the file couldn't be written
+	 */
+	private static void writeReport(String report) throws IOException {
+		final Path file = Paths.get(System.getProperty("scalability.result", "target/scalability-result.csv"));
+		final Path parent = file.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			writer.write(report);
+		}
+	}
+
+	@AfterEach
+	public void clean() throws IOException {
+		try (Stream<Path> stream = Files.walk(this.output)) {
+			stream.sorted(Comparator.reverseOrder()).forEach(path -> {
+				try {
+					Files.delete(path);
+				} catch (final IOException e) {
+					LOGGER.error(e);
+				}
+			});
+		}
+	}
+}
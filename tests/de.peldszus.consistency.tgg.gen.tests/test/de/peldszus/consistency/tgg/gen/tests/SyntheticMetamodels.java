@@ -0,0 +1,128 @@
+package de.peldszus.consistency.tgg.gen.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.xmi.impl.EcoreResourceFactoryImpl;
+
+/**
+ * Creates synthetic meta models of configurable sizes for performance
+ * measurements
+ *
+ * @author speldszus
+ *
+ */
+public final class SyntheticMetamodels {
+
+	private static final int DATA_TYPES = 4;
+
+	private SyntheticMetamodels() {
+		// This class provides only static methods
+	}
+
+	/**
+	 * Creates a new meta model in a resource of a new resource set. Classes are
+	 * organized in inheritance chains of the given depth whose roots are abstract.
+	 * The first reference of each class is a containment reference.
+	 *
+	 * @param name       The name of the EPackage
+	 * @param classes    The number of EClasses
+	 * @param depth      The maximal depth of the inheritance hierarchies
+	 * @param references The number of EReferences declared by each EClass
+	 * @param attributes The number of EAttributes declared by each EClass
+	 * @return The EPackage
+	 */
+	public static EPackage create(String name, int classes, int depth, int references, int attributes) {
+		return create(name, 1, classes, depth, references, 1, attributes).get(0);
+	}
+
+	/**
+	 * Creates new meta models in resources of a new resource set. The classes are
+	 * distributed in consecutive blocks over the EPackages and organized in
+	 * inheritance chains of the given depth whose roots are abstract. The targets
+	 * of the references are spread over all classes, so that inheritance chains
+	 * and references cross the borders of the EPackages. All attributes are typed
+	 * with data types of their own EPackage, so the generation doesn't require the
+	 * eMoflon attribute condition library.
+	 *
+	 * @param name         The name of the meta models
+	 * @param packages     The number of EPackages
+	 * @param classes      The number of EClasses of all EPackages
+	 * @param depth        The maximal depth of the inheritance hierarchies
+	 * @param references   The number of EReferences declared by each EClass
+	 * @param containments The number of the references which are containments
+	 * @param attributes   The number of EAttributes declared by each EClass
+	 * @return The EPackages
+	 */
+	public static List<EPackage> create(String name, int packages, int classes, int depth, int references,
+			int containments, int attributes) {
+		final EcoreFactory factory = EcoreFactory.eINSTANCE;
+		final ResourceSet resourceSet = new ResourceSetImpl();
+		resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap().put("ecore",
+				new EcoreResourceFactoryImpl());
+		final List<EPackage> ePackages = new ArrayList<>(packages);
+		final EDataType[][] dataTypes = new EDataType[packages][DATA_TYPES];
+		for (int p = 0; p < packages; p++) {
+			final String packageName = packages == 1 ? name : name + p;
+			final EPackage ePackage = factory.createEPackage();
+			ePackage.setName(packageName);
+			ePackage.setNsPrefix(packageName);
+			ePackage.setNsURI("http://www.example.org/" + packageName);
+			for (int i = 0; i < dataTypes[p].length; i++) {
+				final EDataType dataType = factory.createEDataType();
+				dataType.setName(packageName + "Data" + i);
+				dataType.setInstanceClassName("java.lang.String");
+				ePackage.getEClassifiers().add(dataType);
+				dataTypes[p][i] = dataType;
+			}
+			final Resource resource = resourceSet
+					.createResource(URI.createPlatformResourceURI(name + "/model/" + packageName + ".ecore", true));
+			resource.getContents().add(ePackage);
+			ePackages.add(ePackage);
+		}
+
+		final int chain = Math.max(1, depth);
+		final EClass[] eClasses = new EClass[classes];
+		for (int i = 0; i < classes; i++) {
+			final int p = (int) ((long) i * packages / classes);
+			final EPackage ePackage = ePackages.get(p);
+			final EClass eClass = factory.createEClass();
+			eClass.setName(ePackage.getName() + "Class" + i);
+			if (chain > 1 && i % chain == 0) {
+				eClass.setAbstract(true);
+			} else if (i % chain != 0) {
+				eClass.getESuperTypes().add(eClasses[i - 1]);
+			}
+			ePackage.getEClassifiers().add(eClass);
+			eClasses[i] = eClass;
+			for (int a = 0; a < attributes; a++) {
+				final EAttribute eAttribute = factory.createEAttribute();
+				eAttribute.setName("attribute" + i + "_" + a);
+				eAttribute.setEType(dataTypes[p][(i + a) % dataTypes[p].length]);
+				eClass.getEStructuralFeatures().add(eAttribute);
+			}
+		}
+
+		for (int i = 0; i < classes; i++) {
+			for (int r = 0; r < references; r++) {
+				final EReference eReference = factory.createEReference();
+				eReference.setName("reference" + i + "_" + r);
+				eReference.setEType(eClasses[(i * 31 + r * 17 + 1) % classes]);
+				eReference.setContainment(r < containments);
+				eReference.setUpperBound(-1);
+				eClasses[i].getEStructuralFeatures().add(eReference);
+			}
+		}
+		return ePackages;
+	}
+}
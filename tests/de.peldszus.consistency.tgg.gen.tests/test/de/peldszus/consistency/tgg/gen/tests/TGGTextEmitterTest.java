@@ -0,0 +1,123 @@
+package de.peldszus.consistency.tgg.gen.tests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.log4j.Logger;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.emf.ecore.EPackage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import de.peldszus.consistency.tgg.gen.GeneratorConfiguration;
+import de.peldszus.consistency.tgg.gen.RuleGrouping;
+import de.peldszus.consistency.tgg.gen.TGGGenerator;
+
+/**
+ * Checks that the rule files written by the text emitter contain the same
+ * tokens as the rule files serialized by Xtext
+ *
+ * @author speldszus
+ *
+ */
+public class TGGTextEmitterTest {
+
+	private static final Logger LOGGER = Logger.getLogger(TGGTextEmitterTest.class);
+
+	private static final Pattern TOKEN = Pattern.compile("[\\w.*]+|->|\\+\\+|\\S");
+
+	private Path output;
+
+	@BeforeEach
+	public void createOutput() throws IOException {
+		this.output = Files.createTempDirectory("emitter");
+	}
+
+	@ParameterizedTest
+	@EnumSource(RuleGrouping.class)
+	public void testEquivalence(RuleGrouping grouping) throws IOException {
+		final Path serialized = generate(grouping, false);
+		final Path emitted = generate(grouping, true);
+
+		final List<Path> files = listRuleFiles(serialized);
+		assertFalse(files.isEmpty(), "No rule files have been generated");
+		assertEquals(files, listRuleFiles(emitted));
+		for (final Path file : files) {
+			assertEquals(tokenize(serialized.resolve(file)), tokenize(emitted.resolve(file)),
+					"The emitted rule file differs: " + file);
+		}
+	}
+
+	/**
+	 * Generates a TGG for a synthetic meta model
+	 *
+	 * @param grouping     The grouping of the rules
+	 * @param textEmission If the text emitter should be used
+	 * @return The folder containing the TGG
+	 * @throws IOException If the generation failed
+	 */
+	private Path generate(RuleGrouping grouping, boolean textEmission) throws IOException {
+		final List<EPackage> ePackages = SyntheticMetamodels.create("Emitter", 2, 200, 4, 3, 2, 3);
+		final Path folder = this.output.resolve(grouping + "-" + textEmission);
+		final GeneratorConfiguration configuration = new GeneratorConfiguration().setRuleGrouping(grouping)
+				.setGroupSize(25).setTextEmission(textEmission);
+		new TGGGenerator(configuration).generate(ePackages, "Emitter", folder, null, new NullProgressMonitor());
+		return folder;
+	}
+
+	/**
+	 * @param folder The folder of a generated TGG
+	 * @return The sorted paths of all rule files relative to the folder
+	 * @throws IOException If the folder couldn't be listed
+	 */
+	private static List<Path> listRuleFiles(Path folder) throws IOException {
+		try (Stream<Path> stream = Files.walk(folder)) {
+			return stream.filter(path -> path.toString().endsWith(".tgg")).filter(path -> path.getParent()
+					.getFileName().toString().equals("rules")).map(folder::relativize).sorted()
+					.collect(Collectors.toList());
+		}
+	}
+
+	/**
+	 * Splits a file into its tokens, ignoring all whitespace
+	 *
+	 * @param file A TGG file
+	 * @return The tokens
+	 * @throws IOException If the file couldn't be read
+	 */
+	private static List<String> tokenize(Path file) throws IOException {
+		final Matcher matcher = TOKEN.matcher(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+		final List<String> tokens = new ArrayList<>();
+		while (matcher.find()) {
+			tokens.add(matcher.group());
+		}
+		return tokens;
+	}
+
+	@AfterEach
+	public void clean() throws IOException {
+		try (Stream<Path> stream = Files.walk(this.output)) {
+			stream.sorted(Comparator.reverseOrder()).forEach(path -> {
+				try {
+					Files.delete(path);
+				} catch (final IOException e) {
+					LOGGER.error(e);
+				}
+			});
+		}
+	}
+}